@@ -1,14 +1,13 @@
-import java.util.ArrayList;
-import java.util.List;
 import java.awt.Point; // Using java.awt.Point for simple coordinate representation
+import java.util.List;
 
 public class GameBoard {
     private final int width;
     private final int height;
     private char[][] board;
-    private List<Point> path;
-    private Point start;
-    private Point end;
+    private IntHashSet path; // Path cells packed with GridCoords, for O(1) lookups while drawing
+    private int start;
+    private int end;
 
     /**
      * Constructs a new GameBoard with specified dimensions.
@@ -29,7 +28,7 @@ public class GameBoard {
                 board[i][j] = ' '; // Empty cell
             }
         }
-        this.path = new ArrayList<>();
+        this.path = new IntHashSet();
     }
 
     /**
@@ -56,7 +55,7 @@ public class GameBoard {
      */
     public void setStart(int x, int y) {
         if (isValidCoordinate(x, y)) {
-            this.start = new Point(x, y);
+            this.start = GridCoords.pack(x, y);
             setCell(x, y, 'S');
         } else {
             System.err.println("Warning: Start point outside board bounds at (" + x + "," + y + ")");
@@ -72,20 +71,37 @@ public class GameBoard {
      */
     public void setEnd(int x, int y) {
         if (isValidCoordinate(x, y)) {
-            this.end = new Point(x, y);
+            this.end = GridCoords.pack(x, y);
             setCell(x, y, 'E');
         } else {
             System.err.println("Warning: End point outside board bounds at (" + x + "," + y + ")");
         }
     }
 
+    /**
+     * Adds the points of a path to be drawn on the board.
+     *
+     * @param path The points forming the path, packed with GridCoords.pack.
+     */
+    public void addPath(int... path) {
+        this.path = new IntHashSet(path.length); // A copy, so later changes to the array don't leak in
+        for (int p : path) {
+            this.path.add(p);
+        }
+    }
+
     /**
      * Adds a list of points representing a path to be drawn on the board.
      *
      * @param path A List of Point objects forming the path.
      */
     public void addPath(List<Point> path) {
-        this.path = new ArrayList<>(path); // Create a defensive copy
+        int[] packed = new int[path.size()];
+        for (int i = 0; i < packed.length; i++) {
+            Point p = path.get(i);
+            packed[i] = GridCoords.pack(p.x, p.y);
+        }
+        addPath(packed);
     }
 
     /**
@@ -128,12 +144,7 @@ public class GameBoard {
      * @return true if the point is in the path, false otherwise.
      */
     private boolean pathContains(int x, int y) {
-        for (Point p : path) {
-            if (p.x == x && p.y == y) {
-                return true;
-            }
-        }
-        return false;
+        return path.contains(GridCoords.pack(x, y));
     }
 
     /**
@@ -155,17 +166,18 @@ public class GameBoard {
         board.setEnd(6, 4);
 
         // Define a sample path
-        List<Point> samplePath = new ArrayList<>();
-        samplePath.add(new Point(0, 0)); // Start
-        samplePath.add(new Point(1, 0));
-        samplePath.add(new Point(2, 0));
-        samplePath.add(new Point(2, 1));
-        samplePath.add(new Point(2, 2));
-        samplePath.add(new Point(2, 3));
-        samplePath.add(new Point(4, 3));
-        samplePath.add(new Point(4, 4));
-        samplePath.add(new Point(5, 4));
-        samplePath.add(new Point(6, 4)); // End
+        int[] samplePath = {
+                GridCoords.pack(0, 0), // Start
+                GridCoords.pack(1, 0),
+                GridCoords.pack(2, 0),
+                GridCoords.pack(2, 1),
+                GridCoords.pack(2, 2),
+                GridCoords.pack(2, 3),
+                GridCoords.pack(4, 3),
+                GridCoords.pack(4, 4),
+                GridCoords.pack(5, 4),
+                GridCoords.pack(6, 4) // End
+        };
 
         // Add the path to the board
         board.addPath(samplePath);
@@ -1,6 +1,3 @@
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Random;
 
 public class MazeGenerator {
@@ -33,25 +30,41 @@ public class MazeGenerator {
         return grid;
     }
 
-    private void carvePath(int x, int y) {
-        grid[y][x] = ' '; // Jelenlegi cella út
-
+    // Mélységi bejárás explicit veremmel (rekurzió helyett, így nagy labirintusnál sem csordul túl).
+    private void carvePath(int startX, int startY) {
         int[] dx = {2, 0, -2, 0}; // Lépések x irányban (jobb, le, bal, fel)
         int[] dy = {0, 2, 0, -2}; // Lépések y irányban
+        int[] candidates = new int[4];
 
-        List<Integer> directions = new ArrayList<>();
-        for (int i = 0; i < 4; i++) directions.add(i);
-        Collections.shuffle(directions, random); // Irányok véletlenszerű sorrendje
+        IntDeque stack = new IntDeque(LOGICAL_WIDTH * LOGICAL_HEIGHT);
+        grid[startY][startX] = ' '; // Kezdőcella út
+        stack.addLast(GridCoords.pack(startX, startY));
 
-        for (int dir : directions) {
-            int nx = x + dx[dir];
-            int ny = y + dy[dir];
+        while (!stack.isEmpty()) {
+            int current = stack.peekLast();
+            int x = GridCoords.x(current);
+            int y = GridCoords.y(current);
 
-            // Ha a szomszéd a rácson belül van és fal (nem látogatott)
-            if (nx > 0 && nx < ACTUAL_WIDTH - 1 && ny > 0 && ny < ACTUAL_HEIGHT - 1 && grid[ny][nx] == '#') {
-                grid[y + dy[dir] / 2][x + dx[dir] / 2] = ' '; // Fal eltávolítása
-                carvePath(nx, ny); // Rekurzív hívás a szomszédra
+            // Még nem látogatott (fal) szomszédok a rácson belül
+            int count = 0;
+            for (int dir = 0; dir < 4; dir++) {
+                int nx = x + dx[dir];
+                int ny = y + dy[dir];
+                if (nx > 0 && nx < ACTUAL_WIDTH - 1 && ny > 0 && ny < ACTUAL_HEIGHT - 1 && grid[ny][nx] == '#') {
+                    candidates[count++] = dir;
+                }
+            }
+            if (count == 0) {
+                stack.pollLast(); // Zsákutca, visszalépés
+                continue;
             }
+
+            int dir = candidates[random.nextInt(count)]; // Véletlenszerű irány
+            int nx = x + dx[dir];
+            int ny = y + dy[dir];
+            grid[y + dy[dir] / 2][x + dx[dir] / 2] = ' '; // Fal eltávolítása
+            grid[ny][nx] = ' ';
+            stack.addLast(GridCoords.pack(nx, ny));
         }
     }
 
@@ -1,7 +1,10 @@
+import com.ai.project.CompiledTileMap;
+
 public class PacMan {
     private int x;
     private int y;
     private Direction currentDirection;
+    private Direction queuedDirection; // A kért fordulás, amíg az útvonal meg nem nyílik
 
     public enum Direction {
         UP, DOWN, LEFT, RIGHT
@@ -40,6 +43,39 @@ public class PacMan {
         }
     }
 
+    /**
+     * Egy lépés a lefordított pályán, falakkal és kanyarodással.
+     * Ha a kért (queueDirection) irány nyitott, Pac-Man befordul; különben az aktuális irányban
+     * halad tovább, ha arra nincs fal, egyébként megáll. A pálya szélén lévő alagutakon átjut a
+     * túloldalra. Minden vizsgálat egy-egy tömbelem a pálya irány maszkjaiban.
+     *
+     * @param map A pálya; az iránysorrend (UP, DOWN, LEFT, RIGHT) egyezik a Direction sorrendjével.
+     * @return true, ha Pac-Man elmozdult.
+     */
+    public boolean move(CompiledTileMap map) {
+        int cell = map.index(x, y);
+        if (queuedDirection != null && map.canPacmanMove(cell, queuedDirection.ordinal())) {
+            currentDirection = queuedDirection;
+            queuedDirection = null;
+        }
+        if (!map.canPacmanMove(cell, currentDirection.ordinal())) {
+            return false; // Fal előtt megáll
+        }
+        int next = map.neighbor(cell, currentDirection.ordinal());
+        x = map.x(next);
+        y = map.y(next);
+        return true;
+    }
+
+    /**
+     * Kér egy fordulást, amelyet a move(CompiledTileMap) az első olyan lépésnél hajt végre,
+     * ahol az adott irányban nincs fal.
+     * @param direction A kívánt irány.
+     */
+    public void queueDirection(Direction direction) {
+        this.queuedDirection = direction;
+    }
+
     /**
      * Megváltoztatja a Pac-Man mozgásirányát.
      * @param newDirection Az új irány.
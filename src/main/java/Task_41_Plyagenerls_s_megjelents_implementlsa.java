@@ -1,12 +1,10 @@
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 public class PathGeneratorDisplay extends JPanel {
 
-    private List<Point> pathPoints;
+    private IntDeque pathPoints; // A pontok GridCoords szerint pakolva
     private final int NUM_POINTS = 50; // A pálya pontjainak száma
     private final int MAX_STEP = 30;    // Maximális lépésméret egy pont generálásakor
 
@@ -17,14 +15,14 @@ public class PathGeneratorDisplay extends JPanel {
     }
 
     private void generatePath() {
-        pathPoints = new ArrayList<>();
+        pathPoints = new IntDeque(NUM_POINTS);
         Random rand = new Random();
 
         // Kezdőpont a panel közepén
         int currentX = getPreferredSize().width / 2;
         int currentY = getPreferredSize().height / 2;
 
-        pathPoints.add(new Point(currentX, currentY));
+        pathPoints.addLast(GridCoords.pack(currentX, currentY));
 
         for (int i = 1; i < NUM_POINTS; i++) {
             // Véletlenszerű elmozdulás
@@ -38,7 +36,7 @@ public class PathGeneratorDisplay extends JPanel {
             currentX = Math.max(0, Math.min(currentX, getPreferredSize().width));
             currentY = Math.max(0, Math.min(currentY, getPreferredSize().height));
 
-            pathPoints.add(new Point(currentX, currentY));
+            pathPoints.addLast(GridCoords.pack(currentX, currentY));
         }
     }
 
@@ -56,15 +54,16 @@ public class PathGeneratorDisplay extends JPanel {
         if (pathPoints != null && pathPoints.size() > 1) {
             // A pontok összekötése vonalakkal
             for (int i = 0; i < pathPoints.size() - 1; i++) {
-                Point p1 = pathPoints.get(i);
-                Point p2 = pathPoints.get(i + 1);
-                g2d.drawLine(p1.x, p1.y, p2.x, p2.y);
+                int p1 = pathPoints.get(i);
+                int p2 = pathPoints.get(i + 1);
+                g2d.drawLine(GridCoords.x(p1), GridCoords.y(p1), GridCoords.x(p2), GridCoords.y(p2));
             }
 
             // Pontok megjelenítése (opcionális)
             g2d.setColor(Color.RED);
-            for (Point p : pathPoints) {
-                g2d.fillOval(p.x - 4, p.y - 4, 8, 8); // Kis körök a pontoknál
+            for (int i = 0; i < pathPoints.size(); i++) {
+                int p = pathPoints.get(i);
+                g2d.fillOval(GridCoords.x(p) - 4, GridCoords.y(p) - 4, 8, 8); // Kis körök a pontoknál
             }
         }
     }
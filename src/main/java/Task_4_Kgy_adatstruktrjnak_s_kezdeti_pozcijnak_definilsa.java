@@ -3,7 +3,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Snake {
-    private List<Point> body; // A kígyó testét alkotó szegmensek listája
+    private final IntDeque body; // A szegmensek GridCoords szerint pakolva, a fej az első elem
 
     /**
      * Létrehoz egy új kígyót a megadott kezdeti pozícióval és hosszal.
@@ -15,23 +15,54 @@ public class Snake {
      * @param initialLength A kígyó kezdeti hossza (szegmensek száma).
      */
     public Snake(int headX, int headY, int initialLength) {
-        body = new ArrayList<>();
+        body = new IntDeque(initialLength);
         for (int i = 0; i < initialLength; i++) {
-            body.add(new Point(headX - i, headY));
+            body.addLast(GridCoords.pack(headX - i, headY));
         }
     }
 
     /**
      * Visszaadja a kígyó testét alkotó pontok listáját.
+     * A lista a pakolt testből készült másolat; a módosítása nem hat a kígyóra.
      *
-     * @return A kígyó testét reprezentáló Point objektumok listája.
+     * @return A kígyó testét reprezentáló Point objektumok listája, a fejjel kezdve.
      */
     public List<Point> getBody() {
+        List<Point> points = new ArrayList<>(body.size());
+        for (int i = 0; i < body.size(); i++) {
+            int cell = body.get(i);
+            points.add(new Point(GridCoords.x(cell), GridCoords.y(cell)));
+        }
+        return points;
+    }
+
+    /**
+     * Visszaadja a kígyó testét alkotó pontokat allokáció nélkül.
+     *
+     * @return A szegmensek GridCoords szerint pakolt koordinátái, a fejjel kezdve.
+     */
+    IntDeque bodyCells() {
         return body;
     }
 
+    /**
+     * Visszaadja a fej pakolt koordinátáját.
+     *
+     * @return A fej GridCoords szerint pakolva.
+     */
+    public int getHead() {
+        return body.peekFirst();
+    }
+
     @Override
     public String toString() {
-        return "Snake [body=" + body + "]";
+        StringBuilder sb = new StringBuilder("Snake [body=[");
+        for (int i = 0; i < body.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(GridCoords.toString(body.get(i)));
+        }
+        return sb.append("]]").toString();
     }
 }
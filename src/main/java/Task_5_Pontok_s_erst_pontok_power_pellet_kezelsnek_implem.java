@@ -1,3 +1,5 @@
+import java.util.Random;
+
 public class GameScoreManager {
 
     private static final int REGULAR_POINT_VALUE = 10;
@@ -8,11 +10,40 @@ public class GameScoreManager {
     private int score;
     private boolean isPoweredUp;
     private long powerUpEndTime;
+    private final GameClock clock;
+    private final TimerWheel timerWheel; // null: expire lazily by polling the clock
+    private TimerWheel.Timeout powerUpExpiry;
 
     public GameScoreManager() {
+        this(GameClock.system());
+    }
+
+    /**
+     * Creates a manager that expires power-ups by polling the given clock, e.g. a VirtualClock
+     * for simulations.
+     *
+     * @param clock The time source.
+     */
+    public GameScoreManager(GameClock clock) {
+        this(clock, null);
+    }
+
+    /**
+     * Creates a manager whose power-up expiry is registered on the given timer wheel, so the
+     * state is cleared on the right tick and isPlayerPoweredUp() never has to read the clock.
+     *
+     * @param timerWheel The game's timer wheel, or null to expire lazily by polling.
+     */
+    public GameScoreManager(TimerWheel timerWheel) {
+        this(GameClock.system(), timerWheel);
+    }
+
+    private GameScoreManager(GameClock clock, TimerWheel timerWheel) {
+        this.clock = clock;
         this.score = 0;
         this.isPoweredUp = false;
         this.powerUpEndTime = 0;
+        this.timerWheel = timerWheel;
     }
 
     /**
@@ -28,7 +59,25 @@ public class GameScoreManager {
     public void eatPowerPellet() {
         score += POWER_PELLET_VALUE;
         isPoweredUp = true;
-        powerUpEndTime = System.currentTimeMillis() + POWER_PELLET_DURATION_MS;
+        if (timerWheel != null) {
+            // A new pellet restarts the power-up, replacing the pending expiry
+            cancelPowerUpExpiry();
+            powerUpExpiry = timerWheel.schedule(timerWheel.millisToTicks(POWER_PELLET_DURATION_MS), this::expirePowerUp);
+        } else {
+            powerUpEndTime = clock.currentTimeMillis() + POWER_PELLET_DURATION_MS;
+        }
+    }
+
+    private void expirePowerUp() {
+        isPoweredUp = false;
+        powerUpExpiry = null;
+    }
+
+    private void cancelPowerUpExpiry() {
+        if (powerUpExpiry != null) {
+            powerUpExpiry.cancel();
+            powerUpExpiry = null;
+        }
     }
 
     /**
@@ -51,7 +100,7 @@ public class GameScoreManager {
      * @return true if the player is powered up, false otherwise.
      */
     public boolean isPlayerPoweredUp() {
-        if (isPoweredUp && System.currentTimeMillis() >= powerUpEndTime) {
+        if (isPoweredUp && timerWheel == null && clock.currentTimeMillis() >= powerUpEndTime) {
             isPoweredUp = false; // Power-up has expired
         }
         return isPoweredUp;
@@ -73,12 +122,16 @@ public class GameScoreManager {
         this.score = 0;
         this.isPoweredUp = false;
         this.powerUpEndTime = 0;
+        cancelPowerUpExpiry();
     }
 
-    // Example usage (optional, for demonstration if this were a main class)
-    /*
-    public static void main(String[] args) throws InterruptedException {
-        GameScoreManager game = new GameScoreManager();
+    /**
+     * Demonstrates power-up expiry on a virtual clock: the 10-second pellet expires instantly,
+     * and hours of simulated play run in milliseconds with repeatable results.
+     */
+    public static void main(String[] args) {
+        VirtualClock clock = new VirtualClock();
+        GameScoreManager game = new GameScoreManager(clock);
         System.out.println("Initial score: " + game.getScore() + ", Powered up: " + game.isPlayerPoweredUp());
 
         game.eatRegularPoint();
@@ -90,8 +143,7 @@ public class GameScoreManager {
         game.eatGhost();
         System.out.println("After eating ghost (powered up): " + game.getScore());
 
-        System.out.println("Waiting for power-up to expire...");
-        Thread.sleep(POWER_PELLET_DURATION_MS + 1000); // Wait a bit longer than duration
+        clock.advanceMillis(POWER_PELLET_DURATION_MS + 1000); // No waiting: the virtual clock jumps ahead
 
         System.out.println("Powered up: " + game.isPlayerPoweredUp()); // Should be false now
         game.eatGhost(); // This should fail
@@ -99,6 +151,34 @@ public class GameScoreManager {
 
         game.resetGame();
         System.out.println("After reset: " + game.getScore() + ", Powered up: " + game.isPlayerPoweredUp());
+
+        long start = System.nanoTime();
+        long first = simulate(3 * 60 * 60 * 1000L, 2024L);
+        long second = simulate(3 * 60 * 60 * 1000L, 2024L);
+        System.out.printf("3 hours of game time, twice, in %.1f ms of real time; scores: %d and %d (identical: %b)%n",
+                (System.nanoTime() - start) / 1e6, first, second, first == second);
+    }
+
+    // Plays random pellets and ghosts at 60 frames per second on a virtual clock; returns the final score.
+    private static long simulate(long durationMillis, long seed) {
+        VirtualClock clock = new VirtualClock();
+        GameScoreManager game = new GameScoreManager(clock);
+        GameTimer timer = new GameTimer(clock);
+        Random random = new Random(seed);
+        long frameNanos = 1_000_000_000L / 60;
+        timer.start();
+        while (timer.getElapsedTimeMillis() < durationMillis) {
+            int event = random.nextInt(1000);
+            if (event < 300) {
+                game.eatRegularPoint();
+            } else if (event < 302) {
+                game.eatPowerPellet();
+            } else if (event < 320) {
+                game.eatGhost();
+            }
+            clock.advanceNanos(frameNanos);
+        }
+        timer.stop();
+        return game.getScore();
     }
-    */
 }
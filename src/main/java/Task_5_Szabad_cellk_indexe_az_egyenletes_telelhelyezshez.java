@@ -0,0 +1,127 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A tábla szabad celláinak indexe az étel egyenletes, O(1) idejű elhelyezéséhez.
+ * A szabad cellák azonosítói (sor * oszlopszám + oszlop) egy sűrű tömb elején vannak,
+ * a pozíciótérkép pedig minden cellához megadja, hol áll a sűrű tömbben.
+ * Foglaláskor a cella helyére az utolsó szabad cella kerül (swap-remove), így minden
+ * művelet konstans idejű, és a véletlen választás nem ismételget.
+ */
+public class FreeCellIndex {
+
+    /** Jelzi, hogy nincs szabad cella (a tábla megtelt). */
+    public static final int BOARD_FULL = -1;
+
+    private final int[] freeCells; // Az első 'size' elem a szabad cellák azonosítója
+    private final int[] positions; // Cella -> index a freeCells tömbben, vagy -1, ha foglalt
+    private int size;
+
+    /**
+     * Létrehoz egy indexet, amelyben kezdetben minden cella szabad.
+     *
+     * @param cellCount A tábla celláinak száma.
+     * @throws IllegalArgumentException Ha a cellák száma negatív.
+     */
+    public FreeCellIndex(int cellCount) {
+        if (cellCount < 0) {
+            throw new IllegalArgumentException("A cellák száma nem lehet negatív.");
+        }
+        this.freeCells = new int[cellCount];
+        this.positions = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            freeCells[i] = i;
+            positions[i] = i;
+        }
+        this.size = cellCount;
+    }
+
+    /**
+     * Felépíti az indexet egy rácsból, ahol a 0 értékű cellák számítanak szabadnak.
+     *
+     * @param board A játéktábla (sor, oszlop) indexeléssel.
+     * @return A rács szabad celláit tartalmazó index.
+     */
+    public static FreeCellIndex fromBoard(int[][] board) {
+        int rows = board.length;
+        int cols = board[0].length;
+        FreeCellIndex index = new FreeCellIndex(rows * cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (board[r][c] != 0) {
+                    index.occupy(r * cols + c);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Foglalttá teszi a cellát. Már foglalt cellára nincs hatása.
+     *
+     * @param cell A cella azonosítója.
+     */
+    public void occupy(int cell) {
+        int pos = positions[cell];
+        if (pos < 0) {
+            return;
+        }
+        int last = freeCells[--size];
+        freeCells[pos] = last;
+        positions[last] = pos;
+        positions[cell] = -1;
+    }
+
+    /**
+     * Szabaddá teszi a cellát. Már szabad cellára nincs hatása.
+     *
+     * @param cell A cella azonosítója.
+     */
+    public void release(int cell) {
+        if (positions[cell] >= 0) {
+            return;
+        }
+        freeCells[size] = cell;
+        positions[cell] = size++;
+    }
+
+    /**
+     * Minden cellát foglalttá tesz. A release() hívások sorrendje ezután pontosan
+     * visszaállítja a szabad cellák tömbjének sorrendjét.
+     */
+    public void occupyAll() {
+        Arrays.fill(positions, -1);
+        size = 0;
+    }
+
+    public boolean isFree(int cell) {
+        return positions[cell] >= 0;
+    }
+
+    /**
+     * Visszaadja a szabad cellák számát.
+     * @return A szabad cellák száma.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visszaadja az i-edik szabad cellát (0 <= i < size()).
+     * @param i Index a szabad cellák között.
+     * @return A cella azonosítója.
+     */
+    public int get(int i) {
+        return freeCells[i];
+    }
+
+    /**
+     * Egyenletes eloszlással választ egy szabad cellát.
+     *
+     * @param random A véletlenszám-generátor.
+     * @return A választott cella azonosítója, vagy {@link #BOARD_FULL}, ha nincs szabad cella.
+     */
+    public int randomFreeCell(Random random) {
+        return size == 0 ? BOARD_FULL : freeCells[random.nextInt(size)];
+    }
+}
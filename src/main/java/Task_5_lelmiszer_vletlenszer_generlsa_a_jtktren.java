@@ -2,18 +2,60 @@ import java.util.Random;
 
 public class GameBoard {
 
-    public static void generateRandomFood(int[][] board) {
+    /**
+     * Ételt helyez egy véletlenszerű, üres (0 értékű) cellára.
+     * Index nélkül a táblát kétszer végigolvassa (a szabad cellák megszámlálása, majd a kisorsolt
+     * megkeresése), ez O(sorok * oszlopok) idejű. Minden lépésben hívott ételgeneráláshoz a
+     * FreeCellIndex-et használó változat való.
+     *
+     * @param board A játéktábla.
+     * @return true, ha az étel elhelyezésre került, false, ha a tábla érvénytelen vagy megtelt.
+     */
+    public static boolean generateRandomFood(int[][] board) {
         if (board == null || board.length == 0 || board[0].length == 0) {
-            return; 
+            return false;
+        }
+        int freeCount = 0;
+        for (int[] row : board) {
+            for (int value : row) {
+                if (value == 0) {
+                    freeCount++;
+                }
+            }
+        }
+        if (freeCount == 0) {
+            return false; // Nincs szabad cella
         }
 
-        Random random = new Random();
-        int rows = board.length;
-        int cols = board[0].length;
-
-        int foodRow = random.nextInt(rows);
-        int foodCol = random.nextInt(cols);
+        int target = new Random().nextInt(freeCount);
+        for (int[] row : board) {
+            for (int c = 0; c < row.length; c++) {
+                if (row[c] == 0 && target-- == 0) {
+                    row[c] = 1; // Az '1' jelöli az ételt
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 
-        board[foodRow][foodCol] = 1; // Az '1' jelöli az ételt
+    /**
+     * Ételt helyez egy véletlenszerű szabad cellára egy folyamatosan karbantartott index alapján.
+     * A választás O(1) idejű, és megtelt tábla esetén nem próbálkozik tovább.
+     *
+     * @param board A játéktábla.
+     * @param freeCells A tábla szabad celláinak indexe; az étel cellája foglalttá válik benne.
+     * @param random A véletlenszám-generátor.
+     * @return true, ha az étel elhelyezésre került, false, ha a tábla megtelt.
+     */
+    public static boolean generateRandomFood(int[][] board, FreeCellIndex freeCells, Random random) {
+        int cell = freeCells.randomFreeCell(random);
+        if (cell == FreeCellIndex.BOARD_FULL) {
+            return false; // Nincs szabad cella
+        }
+        int cols = board[0].length;
+        board[cell / cols][cell % cols] = 1; // Az '1' jelöli az ételt
+        freeCells.occupy(cell);
+        return true;
     }
 }
@@ -1,10 +1,7 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Random;
 
-// Pont reprezentálása rekordként a tömörség kedvéért.
-record Point(int x, int y) {}
-
 // Irányok definíciója a mozgás koordinátáival.
 enum Direction {
     UP(0, -1), DOWN(0, 1), LEFT(-1, 0), RIGHT(1, 0);
@@ -16,53 +13,262 @@ enum Direction {
     }
 }
 
+// A kígyó teste primitív körkörös pufferben, a cellák pakolt koordinátaként (y * szélesség + x).
+// A farok a puffer "eleje", a fej a "vége"; a foglaltsági bittérkép cellánként egy bitet tárol,
+// így a mozgás, a növekedés, a farok elengedése és a foglaltság lekérdezése is O(1) és allokációmentes.
+class SnakeBody {
+    private final int width;
+    private final int[] cells;      // Körkörös puffer, kapacitása a tábla celláinak száma
+    private final long[] occupied;  // Foglaltsági bittérkép
+    private int tailIndex;          // A farok indexe a pufferben
+    private int length;
+
+    SnakeBody(int width, int height) {
+        this.width = width;
+        this.cells = new int[width * height];
+        this.occupied = new long[(cells.length + 63) >>> 6];
+    }
+
+    int pack(int x, int y) {
+        return y * width + x;
+    }
+
+    int xOf(int cell) {
+        return cell % width;
+    }
+
+    int yOf(int cell) {
+        return cell / width;
+    }
+
+    // Új fej hozzáadása a test végéhez.
+    void addHead(int cell) {
+        if (length == cells.length) {
+            throw new IllegalStateException("A kígyó már kitölti a teljes táblát.");
+        }
+        int index = tailIndex + length;
+        if (index >= cells.length) {
+            index -= cells.length;
+        }
+        cells[index] = cell;
+        occupied[cell >>> 6] |= 1L << cell;
+        length++;
+    }
+
+    // A farok eltávolítása; visszaadja a felszabadult cellát.
+    int removeTail() {
+        if (length == 0) {
+            throw new IllegalStateException("A kígyónak nincs szegmense.");
+        }
+        int cell = cells[tailIndex];
+        occupied[cell >>> 6] &= ~(1L << cell);
+        if (++tailIndex == cells.length) {
+            tailIndex = 0;
+        }
+        length--;
+        return cell;
+    }
+
+    int head() {
+        return get(length - 1);
+    }
+
+    int tail() {
+        return cells[tailIndex];
+    }
+
+    // Az i-edik szegmens a faroktól (0) a fejig (length - 1).
+    int get(int i) {
+        int index = tailIndex + i;
+        return cells[index >= cells.length ? index - cells.length : index];
+    }
+
+    int length() {
+        return length;
+    }
+
+    void clear() {
+        tailIndex = 0;
+        length = 0;
+        Arrays.fill(occupied, 0L);
+    }
+
+    boolean isOccupied(int cell) {
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    // A k-adik (0-tól számolt) szabad cella növekvő cellasorrendben; k kisebb a szabad cellák számánál.
+    int nthFreeCell(int k) {
+        return nthFreeCell(occupied, 0, k);
+    }
+
+    // Ugyanaz egy from-adik szótól kezdődő bittérképen (a kötegelt motor játékonkénti szeletei).
+    // A bittérképet szavanként számolja végig, így O(cellák / 64). Az utolsó szó táblán túli bitjei
+    // nullák, de azokig sosem jut el, mert a valódi szabad cellák megelőzik őket.
+    static int nthFreeCell(long[] occupied, int from, int k) {
+        for (int w = from; ; w++) {
+            long free = ~occupied[w];
+            int count = Long.bitCount(free);
+            if (k < count) {
+                for (; k > 0; k--) {
+                    free &= free - 1; // A legalsó szabad bit törlése
+                }
+                return ((w - from) << 6) + Long.numberOfTrailingZeros(free);
+            }
+            k -= count;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < length; i++) {
+            int cell = get(i);
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(GridCoords.toString(GridCoords.pack(xOf(cell), yOf(cell))));
+        }
+        return sb.append(']').toString();
+    }
+}
+
+// A java.util.Random-mal bitre azonos lineáris kongruens generátor, de az állapota kiolvasható,
+// és a statikus változat primitív tömbben tárolt állapotokon dolgozik (sok játék egyszerre).
+// Így ugyanabból a seedből a SnakeGame és a kötegelt motor ugyanazt az ételsorozatot kapja.
+final class SnakeRng {
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private final long[] state = new long[1]; // Egyelemű tömb, hogy a statikus lépést használhassa
+
+    SnakeRng(long seed) {
+        this.state[0] = initialState(seed);
+    }
+
+    static long initialState(long seed) {
+        return (seed ^ MULTIPLIER) & MASK;
+    }
+
+    long getState() {
+        return state[0];
+    }
+
+    void setState(long state) {
+        this.state[0] = state;
+    }
+
+    int nextInt(int bound) {
+        return nextInt(state, 0, bound);
+    }
+
+    // Egy véletlen szám [0, bound) tartományból a states[i] állapotból; ez az egyetlen lépés,
+    // amelyet a SnakeGame és a kötegelt motor is használ, így a kettő bitre azonos marad.
+    static int nextInt(long[] states, int i, int bound) {
+        long s = states[i];
+        int r;
+        if ((bound & (bound - 1)) == 0) {
+            s = (s * MULTIPLIER + ADDEND) & MASK;
+            r = (int) ((bound * (s >>> 17)) >> 31);
+        } else {
+            int u;
+            do {
+                s = (s * MULTIPLIER + ADDEND) & MASK;
+                u = (int) (s >>> 17);
+                r = u % bound;
+            } while (u - r + (bound - 1) < 0);
+        }
+        states[i] = s;
+        return r;
+    }
+}
+
 public class SnakeGame {
-    private final List<Point> snakeBody;
-    private Point food;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final SnakeBody snakeBody;
+    private int foodCell; // Az étel pakolt koordinátája, vagy FreeCellIndex.BOARD_FULL
     private Direction currentDirection;
     private int score; // Az elfogyasztott ételek száma, ami a kígyó hosszát növeli
+    private boolean gameOver; // A kígyó saját magába ütközött
     private final int boardWidth, boardHeight;
-    private final Random random;
+    private final long seed;
+    private final SnakeRng random;
 
     public SnakeGame(int width, int height) {
+        this(width, height, new Random().nextLong());
+    }
+
+    /**
+     * Létrehoz egy játékot rögzített seeddel; azonos seed és irányváltások mellett a játék
+     * (ételpozíciók, pontszám) mindig ugyanúgy zajlik le.
+     */
+    public SnakeGame(int width, int height, long seed) {
         this.boardWidth = width;
         this.boardHeight = height;
-        this.random = new Random();
-        this.snakeBody = new ArrayList<>();
-        snakeBody.add(new Point(0, 0)); // Kezdő kígyó
-        snakeBody.add(new Point(1, 0));
-        snakeBody.add(new Point(2, 0));
+        this.seed = seed;
+        this.random = new SnakeRng(seed);
+        this.snakeBody = new SnakeBody(width, height);
+        addHead(snakeBody.pack(0, 0)); // Kezdő kígyó
+        addHead(snakeBody.pack(1, 0));
+        addHead(snakeBody.pack(2, 0));
         this.currentDirection = Direction.RIGHT;
         this.score = 0;
         generateFood(); // Első étel elhelyezése
     }
 
     private void generateFood() {
-        Point newFood;
-        do {
-            newFood = new Point(random.nextInt(boardWidth), random.nextInt(boardHeight));
-        } while (snakeBody.contains(newFood)); // Ne spawnoljon a kígyón
-        this.food = newFood;
+        // Egyenletes választás a kígyó által nem foglalt cellák közül, növekvő cellasorrendben; megtelt
+        // táblán BOARD_FULL. Az eredmény csak a generátor állapotától és a testtől függ, a korábbi
+        // lépésektől nem, így a mentett állapothoz elég a test.
+        int free = boardWidth * boardHeight - snakeBody.length();
+        this.foodCell = free == 0 ? FreeCellIndex.BOARD_FULL : snakeBody.nthFreeCell(random.nextInt(free));
+    }
+
+    private void addHead(int cell) {
+        snakeBody.addHead(cell);
     }
 
     public void move() {
-        Point head = snakeBody.get(snakeBody.size() - 1);
-        Point newHead = new Point(
-                (head.x() + currentDirection.dx + boardWidth) % boardWidth,
-                (head.y() + currentDirection.dy + boardHeight) % boardHeight
+        if (gameOver) {
+            return;
+        }
+        int head = snakeBody.head();
+        int newHead = snakeBody.pack(
+                (snakeBody.xOf(head) + currentDirection.dx + boardWidth) % boardWidth,
+                (snakeBody.yOf(head) + currentDirection.dy + boardHeight) % boardHeight
         );
+        boolean eats = newHead == foodCell;
 
-        snakeBody.add(newHead); // Új fej hozzáadása
+        // A fej a farok helyére léphet, ha a farok ebben a lépésben felszabadul
+        if (snakeBody.isOccupied(newHead) && (eats || newHead != snakeBody.tail())) {
+            gameOver = true;
+            return;
+        }
 
-        if (newHead.equals(food)) { // Étel elfogyasztása
+        if (!eats) {
+            snakeBody.removeTail(); // Farok eltávolítása, ha nem evett
+        }
+        addHead(newHead); // Új fej hozzáadása
+
+        if (eats) { // Étel elfogyasztása
             score++;
             generateFood(); // Új étel generálása
             // A kígyó hossza nő, mivel a farkát nem távolítjuk el
-        } else {
-            snakeBody.remove(0); // Farok eltávolítása, ha nem evett
         }
     }
 
+    // Egy játéklépés a bemeneti sorból: legfeljebb egy érvényes fordulat, majd mozgás.
+    // A sort csak a játékszál üríti, így a bemeneti szál sosem írja közvetlenül az irányt.
+    public void tick(DirectionInputQueue input) {
+        int turn = input.pollValidTurn(currentDirection.ordinal());
+        if (turn != DirectionInputQueue.NO_TURN) {
+            currentDirection = DIRECTIONS[turn];
+        }
+        move();
+    }
+
     public void changeDirection(Direction newDirection) {
         // Megakadályozza az azonnali 180 fokos fordulatot
         if ((newDirection == Direction.LEFT && currentDirection == Direction.RIGHT) ||
@@ -74,29 +280,124 @@ public class SnakeGame {
         this.currentDirection = newDirection;
     }
 
+    // Az irány közvetlen beállítása a 180 fokos szabály nélkül, visszajátszáshoz.
+    void setDirection(Direction direction) {
+        this.currentDirection = direction;
+    }
+
+    // A writeState() által írt bájtok száma: 25 + 4 * a kígyó hossza.
+    int stateSize() {
+        return 4 + 4 + 1 + 4 + 8 + 4 + 4 * snakeBody.length();
+    }
+
+    // A teljes játékállapot mentése (kulcskocka): irány, pontszám, étel, generátor, test.
+    void writeState(ByteBuffer out) {
+        out.putInt(currentDirection.ordinal());
+        out.putInt(score);
+        out.put((byte) (gameOver ? 1 : 0));
+        out.putInt(foodCell);
+        out.putLong(random.getState());
+        out.putInt(snakeBody.length());
+        for (int i = 0; i < snakeBody.length(); i++) {
+            out.putInt(snakeBody.get(i));
+        }
+    }
+
+    // A writeState() által mentett állapot visszatöltése egy azonos méretű táblájú játékba.
+    void readState(ByteBuffer in) {
+        currentDirection = DIRECTIONS[in.getInt()];
+        score = in.getInt();
+        gameOver = in.get() != 0;
+        foodCell = in.getInt();
+        random.setState(in.getLong());
+        snakeBody.clear();
+        for (int i = in.getInt(); i > 0; i--) {
+            snakeBody.addHead(in.getInt());
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public Direction getCurrentDirection() {
+        return currentDirection;
+    }
+
+    public int getBoardWidth() {
+        return boardWidth;
+    }
+
+    public int getBoardHeight() {
+        return boardHeight;
+    }
+
+    // Pakolt cellakoordináták (y * szélesség + x).
+    public int getHeadCell() {
+        return snakeBody.head();
+    }
+
+    public int getFoodCell() {
+        return foodCell;
+    }
+
+    public int getLength() {
+        return snakeBody.length();
+    }
+
+    public int getTailCell() {
+        return snakeBody.tail();
+    }
+
+    // Az i-edik szegmens a faroktól (0) a fejig (getLength() - 1).
+    public int getSegment(int i) {
+        return snakeBody.get(i);
+    }
+
+    public boolean isOccupied(int cell) {
+        return snakeBody.isOccupied(cell);
+    }
+
+    // A kígyó kitölti a táblát, nincs hová ételt tenni.
+    public boolean isBoardFull() {
+        return foodCell == FreeCellIndex.BOARD_FULL;
+    }
+
+    private String food() {
+        return isBoardFull() ? null : GridCoords.toString(GridCoords.pack(snakeBody.xOf(foodCell), snakeBody.yOf(foodCell)));
+    }
+
     // Demo fő metódus
     public static void main(String[] args) {
         SnakeGame game = new SnakeGame(10, 10);
-        System.out.println("Initial snake: " + game.snakeBody + ", Food: " + game.food + ", Score: " + game.score);
+        System.out.println("Initial snake: " + game.snakeBody + ", Food: " + game.food() + ", Score: " + game.score);
 
         game.move(); // Mozgás jobbra
-        System.out.println("After 1st move: " + game.snakeBody + ", Food: " + game.food + ", Score: " + game.score);
+        System.out.println("After 1st move: " + game.snakeBody + ", Food: " + game.food() + ", Score: " + game.score);
 
         game.changeDirection(Direction.DOWN); // Irányváltás lefelé
         game.move();
-        System.out.println("After 2nd move: " + game.snakeBody + ", Food: " + game.food + ", Score: " + game.score);
+        System.out.println("After 2nd move: " + game.snakeBody + ", Food: " + game.food() + ", Score: " + game.score);
 
         // Szimuláljunk ételfogyasztást (manuálisan helyezzük az ételt a fej elé a teszthez)
-        game.snakeBody.add(new Point(game.snakeBody.get(game.snakeBody.size()-1).x() + game.currentDirection.dx,
-                                     game.snakeBody.get(game.snakeBody.size()-1).y() + game.currentDirection.dy));
-        game.food = game.snakeBody.get(game.snakeBody.size()-1); // Étel a fej pozíciójára
-        game.snakeBody.remove(game.snakeBody.size()-1); // Visszaállítjuk az eredeti állapotot a move() előtt
+        int head = game.snakeBody.head();
+        game.foodCell = game.snakeBody.pack(
+                (game.snakeBody.xOf(head) + game.currentDirection.dx + game.boardWidth) % game.boardWidth,
+                (game.snakeBody.yOf(head) + game.currentDirection.dy + game.boardHeight) % game.boardHeight);
 
         System.out.println("--- Preparing for food consumption ---");
-        System.out.println("Snake head before consumption: " + game.snakeBody.get(game.snakeBody.size()-1) + ", Food: " + game.food);
+        System.out.println("Snake head before consumption: " + GridCoords.toString(GridCoords.pack(game.snakeBody.xOf(head), game.snakeBody.yOf(head))) + ", Food: " + game.food());
 
         game.move(); // Étel elfogyasztása
-        System.out.println("After food consumption: " + game.snakeBody + ", Food: " + game.food + ", Score: " + game.score);
-        System.out.println("Snake length: " + game.snakeBody.size()); // Látható, hogy a kígyó nőtt
+        System.out.println("After food consumption: " + game.snakeBody + ", Food: " + game.food() + ", Score: " + game.score);
+        System.out.println("Snake length: " + game.snakeBody.length()); // Látható, hogy a kígyó nőtt
     }
 }
@@ -1,5 +1,6 @@
 public class SnakeInputHandler {
 
+    // Declared in the same order as the game's Direction, so ordinals can be exchanged.
     public enum Direction {
         UP, DOWN, LEFT, RIGHT
     }
@@ -18,4 +19,26 @@ public class SnakeInputHandler {
                 return currentDirection; // Ignore unhandled input
         }
     }
+
+    /**
+     * Queues the direction for a key instead of applying it immediately. Safe to call from the
+     * input thread while the game thread ticks; the 180 degree rule is checked when the game
+     * drains the queue, against the direction the snake actually has at that tick.
+     *
+     * @return true if the key is a direction key and it was queued.
+     */
+    public static boolean enqueueDirectionInput(DirectionInputQueue queue, char inputChar) {
+        switch (Character.toLowerCase(inputChar)) {
+            case 'w':
+                return queue.offer(Direction.UP.ordinal());
+            case 's':
+                return queue.offer(Direction.DOWN.ordinal());
+            case 'a':
+                return queue.offer(Direction.LEFT.ordinal());
+            case 'd':
+                return queue.offer(Direction.RIGHT.ordinal());
+            default:
+                return false; // Ignore unhandled input
+        }
+    }
 }
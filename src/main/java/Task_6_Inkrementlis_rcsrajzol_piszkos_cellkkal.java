@@ -0,0 +1,351 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+// Megadja egy cella színét (0xRRGGBB) a cella sorfolytonos azonosítója alapján.
+@FunctionalInterface
+interface GridColorSource {
+    int rgbAt(int cell);
+}
+
+/**
+ * Rácsos játékok inkrementális megjelenítője.
+ *
+ * A tábla képe egy állandó hátsó pufferben (BufferedImage) él. Lépésenként csak a megjelölt
+ * ("piszkos") cellákat rajzoljuk újra a pufferbe, a szomszédos piszkos cellákat téglalapokká
+ * vonjuk össze, és csak ezeket a téglalapokat másoljuk ki a képernyőre. Egy Snake lépés
+ * tipikusan három cellát érint (új fej, elengedett farok, étel), így a rajzolás költsége
+ * a változások számával arányos, nem a tábla területével.
+ */
+public class DirtyGridRenderer extends JPanel {
+
+    private static final int GRID_LINE_RGB = 0x202020;
+
+    private final int columns;
+    private final int rows;
+    private final int cellSize;
+    private final GridColorSource colors;
+
+    private final BufferedImage backBuffer;
+    private final int[] pixels; // A hátsó puffer pixelei közvetlenül
+    private final int imageWidth;
+
+    private final long[] dirtyBits;  // Cellánként egy bit: már szerepel a dirtyCells listában
+    private int[] dirtyCells = new int[64];
+    private int dirtyCount;
+
+    // Az összevont téglalapok cellában: x0, y0, x1, y1 (zárt intervallumok)
+    private int[] rects = new int[4 * 16];
+    private int rectCount;
+    private int[] prevRow = new int[16];         // Az előző sorban végződő téglalapok indexei
+    private int[] currentRowRects = new int[16]; // Az aktuális sorban végződő téglalapok indexei
+
+    // Statisztika az utolsó flush()-ról
+    private int lastCellsDrawn;
+    private int lastRectCount;
+    private long lastPixelsBlitted;
+
+    /**
+     * @param columns A rács oszlopainak száma.
+     * @param rows A rács sorainak száma.
+     * @param cellSize Egy cella mérete pixelben.
+     * @param colors A cellák színét szolgáltató függvény.
+     */
+    public DirtyGridRenderer(int columns, int rows, int cellSize, GridColorSource colors) {
+        if (columns <= 0 || rows <= 0 || cellSize <= 0) {
+            throw new IllegalArgumentException("A rács méretei pozitívak kell legyenek.");
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.cellSize = cellSize;
+        this.colors = colors;
+        this.imageWidth = Math.multiplyExact(columns, cellSize);
+        this.backBuffer = new BufferedImage(imageWidth, Math.multiplyExact(rows, cellSize), BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) backBuffer.getRaster().getDataBuffer()).getData();
+        this.dirtyBits = new long[(Math.multiplyExact(columns, rows) + 63) >>> 6];
+        setPreferredSize(new Dimension(imageWidth, backBuffer.getHeight()));
+        setOpaque(true);
+        redrawAll();
+    }
+
+    /**
+     * Megjelöli a cellát, hogy a következő flush() újrarajzolja. Többszöri jelölés egyszer számít.
+     *
+     * @param cell A cella azonosítója (sor * oszlopszám + oszlop); negatív érték figyelmen kívül marad.
+     */
+    public void markDirty(int cell) {
+        if (cell < 0) {
+            return;
+        }
+        long bit = 1L << cell;
+        if ((dirtyBits[cell >>> 6] & bit) != 0) {
+            return;
+        }
+        dirtyBits[cell >>> 6] |= bit;
+        if (dirtyCount == dirtyCells.length) {
+            dirtyCells = Arrays.copyOf(dirtyCells, dirtyCount * 2);
+        }
+        dirtyCells[dirtyCount++] = cell;
+    }
+
+    /**
+     * A teljes hátsó puffert újrarajzolja (pl. új játék kezdetén), és a teljes panelt frissíti.
+     */
+    public void redrawAll() {
+        for (int cell = 0, n = columns * rows; cell < n; cell++) {
+            drawCell(cell);
+        }
+        clearDirty();
+        repaint();
+    }
+
+    /**
+     * Újrarajzolja a piszkos cellákat a hátsó pufferbe, és összevonja őket téglalapokká.
+     * Nem igényli az Event Dispatch Thread-et, így fej nélküli mérésre is használható.
+     *
+     * @return Az összevont téglalapok száma.
+     */
+    public int updateBackBuffer() {
+        rectCount = 0;
+        lastCellsDrawn = dirtyCount;
+        lastPixelsBlitted = 0;
+        if (dirtyCount == 0) {
+            lastRectCount = 0;
+            return 0;
+        }
+        Arrays.sort(dirtyCells, 0, dirtyCount); // Sorfolytonos sorrend: soronként balról jobbra
+        int prevCount = 0;    // Az előző sorban végződő téglalapok száma (prevRow)
+        int currentCount = 0; // Az aktuális sorban végződő téglalapok száma (currentRowRects)
+        int currentRow = -1;
+        int i = 0;
+        while (i < dirtyCount) {
+            int cell = dirtyCells[i];
+            int y = cell / columns;
+            int x0 = cell - y * columns;
+            drawCell(cell);
+            // Vízszintes futam az egymást követő cellákból
+            int x1 = x0;
+            while (i + 1 < dirtyCount && dirtyCells[i + 1] == cell + (x1 - x0) + 1 && x1 + 1 < columns) {
+                i++;
+                x1++;
+                drawCell(dirtyCells[i]);
+            }
+            i++;
+
+            if (y != currentRow) {
+                // Új sor: az eddigi sor téglalapjai csak akkor "felette lévők", ha közvetlenül felette voltak
+                if (currentRow == y - 1) {
+                    int[] swap = prevRow;
+                    prevRow = currentRowRects;
+                    currentRowRects = swap;
+                    prevCount = currentCount;
+                } else {
+                    prevCount = 0;
+                }
+                currentCount = 0;
+                currentRow = y;
+            }
+            // Ha közvetlenül felette azonos szélességű téglalap van, azt nyújtjuk meg lefelé
+            int target = -1;
+            for (int p = 0; p < prevCount; p++) {
+                int r = prevRow[p];
+                if (rects[4 * r] == x0 && rects[4 * r + 2] == x1) {
+                    target = r;
+                    break;
+                }
+                if (rects[4 * r] > x0) {
+                    break; // Az előző sor téglalapjai x szerint rendezettek
+                }
+            }
+            if (target >= 0) {
+                rects[4 * target + 3] = y;
+            } else {
+                target = addRect(x0, y, x1, y);
+            }
+            if (currentCount == currentRowRects.length) {
+                currentRowRects = Arrays.copyOf(currentRowRects, currentCount * 2);
+                prevRow = Arrays.copyOf(prevRow, currentRowRects.length);
+            }
+            currentRowRects[currentCount++] = target;
+        }
+        clearDirty();
+        lastRectCount = rectCount;
+        for (int r = 0; r < rectCount; r++) {
+            lastPixelsBlitted += (long) (rects[4 * r + 2] - rects[4 * r] + 1)
+                    * (rects[4 * r + 3] - rects[4 * r + 1] + 1) * cellSize * cellSize;
+        }
+        return rectCount;
+    }
+
+    /**
+     * Frissíti a hátsó puffert, majd csak az összevont téglalapokat festi ki a képernyőre.
+     * Az Event Dispatch Thread-en kell hívni (pl. javax.swing.Timer-ből).
+     */
+    public void flush() {
+        int count = updateBackBuffer();
+        // A repaint() a RepaintManager-ben egyetlen befoglaló téglalappá vonná össze a régiókat
+        // (pl. a tábla két sarkában lévő fejet és farkat), ezért a téglalapokat külön festjük ki.
+        for (int r = 0; r < count; r++) {
+            int x0 = rects[4 * r];
+            int y0 = rects[4 * r + 1];
+            paintImmediately(x0 * cellSize, y0 * cellSize,
+                    (rects[4 * r + 2] - x0 + 1) * cellSize, (rects[4 * r + 3] - y0 + 1) * cellSize);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        // A hátsó pufferből csak a vágási téglalapot másoljuk
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            g.drawImage(backBuffer, 0, 0, null);
+            return;
+        }
+        int x1 = Math.min(clip.x + clip.width, backBuffer.getWidth());
+        int y1 = Math.min(clip.y + clip.height, backBuffer.getHeight());
+        g.drawImage(backBuffer, clip.x, clip.y, x1, y1, clip.x, clip.y, x1, y1, null);
+        if (x1 < clip.x + clip.width || y1 < clip.y + clip.height) {
+            g.setColor(getBackground()); // A táblán kívüli terület, ha a panel nagyobb
+            g.fillRect(x1, clip.y, clip.x + clip.width - x1, clip.height);
+            g.fillRect(clip.x, y1, clip.width, clip.y + clip.height - y1);
+        }
+    }
+
+    private void drawCell(int cell) {
+        int rgb = colors.rgbAt(cell);
+        int y = cell / columns;
+        int x = cell - y * columns;
+        int base = y * cellSize * imageWidth + x * cellSize;
+        for (int py = 0; py < cellSize; py++) {
+            int row = base + py * imageWidth;
+            if (cellSize > 2 && (py == cellSize - 1)) {
+                Arrays.fill(pixels, row, row + cellSize, GRID_LINE_RGB); // Rácsvonal alul
+            } else {
+                Arrays.fill(pixels, row, row + cellSize, rgb);
+                if (cellSize > 2) {
+                    pixels[row + cellSize - 1] = GRID_LINE_RGB; // Rácsvonal jobbra
+                }
+            }
+        }
+    }
+
+    private int addRect(int x0, int y0, int x1, int y1) {
+        if (4 * (rectCount + 1) > rects.length) {
+            rects = Arrays.copyOf(rects, rects.length * 2);
+        }
+        rects[4 * rectCount] = x0;
+        rects[4 * rectCount + 1] = y0;
+        rects[4 * rectCount + 2] = x1;
+        rects[4 * rectCount + 3] = y1;
+        return rectCount++;
+    }
+
+    private void clearDirty() {
+        for (int i = 0; i < dirtyCount; i++) {
+            int cell = dirtyCells[i];
+            dirtyBits[cell >>> 6] &= ~(1L << cell);
+        }
+        dirtyCount = 0;
+    }
+
+    public int getLastCellsDrawn() {
+        return lastCellsDrawn;
+    }
+
+    public int getLastRectCount() {
+        return lastRectCount;
+    }
+
+    public long getLastPixelsBlitted() {
+        return lastPixelsBlitted;
+    }
+
+    // A SnakeGame színezése: étel piros, fej sötétzöld, test zöld, üres fekete.
+    static GridColorSource snakeColors(SnakeGame game) {
+        return cell -> {
+            if (cell == game.getFoodCell()) {
+                return 0xD03030;
+            }
+            if (cell == game.getHeadCell()) {
+                return 0x207020;
+            }
+            return game.isOccupied(cell) ? 0x40C040 : 0x000000;
+        };
+    }
+
+    // Egy Snake lépés: a régi farok, a régi és az új étel és az új fej változhat.
+    static void tickAndMark(SnakeGame game, SnakeAutopilot pilot, DirtyGridRenderer renderer) {
+        int oldTail = game.getTailCell();
+        int oldFood = game.getFoodCell();
+        int oldHead = game.getHeadCell();
+        pilot.steer(game);
+        game.move();
+        renderer.markDirty(oldTail);
+        renderer.markDirty(oldFood);
+        renderer.markDirty(oldHead); // A régi fej színe testszínre vált
+        renderer.markDirty(game.getHeadCell());
+        renderer.markDirty(game.getFoodCell());
+    }
+
+    /**
+     * Demo: robotpilóta által vezetett kígyó egy nagy táblán, lépésenként csak a változott cellák rajzolásával.
+     * A "bench" argumentummal fej nélkül összeveti az inkrementális és a teljes újrarajzolás költségét.
+     */
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench") || GraphicsEnvironment.isHeadless()) {
+            benchmark();
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            SnakeGame game = new SnakeGame(240, 160, 7L);
+            SnakeAutopilot pilot = new SnakeAutopilot(game.getBoardWidth(), game.getBoardHeight());
+            DirtyGridRenderer renderer = new DirtyGridRenderer(240, 160, 5, snakeColors(game));
+            JFrame frame = new JFrame("Inkrementális rácsrajzoló");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.add(renderer);
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+            new Timer(16, e -> {
+                if (game.isGameOver()) {
+                    ((Timer) e.getSource()).stop();
+                    return;
+                }
+                tickAndMark(game, pilot, renderer);
+                renderer.flush();
+                frame.setTitle("Hossz: " + game.getLength() + ", újrarajzolt cellák: " + renderer.getLastCellsDrawn()
+                        + ", téglalapok: " + renderer.getLastRectCount());
+            }).start();
+        });
+    }
+
+    private static void benchmark() {
+        int size = 1000;
+        int ticks = 20_000;
+        SnakeGame game = new SnakeGame(size, size, 7L);
+        SnakeAutopilot pilot = new SnakeAutopilot(size, size);
+        DirtyGridRenderer renderer = new DirtyGridRenderer(size, size, 2, snakeColors(game));
+
+        long cells = 0;
+        long rectTotal = 0;
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks && !game.isGameOver(); t++) {
+            tickAndMark(game, pilot, renderer);
+            rectTotal += renderer.updateBackBuffer();
+            cells += renderer.getLastCellsDrawn();
+        }
+        long incremental = System.nanoTime() - start;
+        System.out.printf("Inkrementális: %d lépés, %.2f µs/lépés, átlag %.1f cella és %.1f téglalap lépésenként%n",
+                ticks, incremental / 1000.0 / ticks, (double) cells / ticks, (double) rectTotal / ticks);
+
+        int fullFrames = 20;
+        start = System.nanoTime();
+        for (int i = 0; i < fullFrames; i++) {
+            renderer.redrawAll();
+        }
+        long full = System.nanoTime() - start;
+        System.out.printf("Teljes újrarajzolás (%dx%d): %.2f µs/képkocka%n", size, size, full / 1000.0 / fullFrames);
+    }
+}
@@ -0,0 +1,470 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Közös rácskoordináta-kódolás: egy (x, y) pár egyetlen int-be pakolva.
+ * A felső 16 bit az x, az alsó 16 bit az y (mindkettő előjeles, -32768..32767),
+ * így a pontok objektum nélkül tárolhatók az IntDeque, IntHashSet és IntIntMap gyűjteményekben.
+ *
+ * Sűrű, rögzített méretű táblákon továbbra is a sorfolytonos cellaazonosító (y * szélesség + x)
+ * a célszerű; ez a kódolás a tábla méretétől független, ritka vagy nyitott ponthalmazokhoz való.
+ */
+public final class GridCoords {
+
+    private GridCoords() {
+    }
+
+    public static int pack(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    public static int x(int packed) {
+        return packed >> 16;
+    }
+
+    public static int y(int packed) {
+        return (short) packed;
+    }
+
+    /** A pont eltolása (dx, dy)-nal, kicsomagolás nélkül is olvasható formában. */
+    public static int offset(int packed, int dx, int dy) {
+        return pack(x(packed) + dx, y(packed) + dy);
+    }
+
+    public static String toString(int packed) {
+        return "(" + x(packed) + ", " + y(packed) + ")";
+    }
+}
+
+/**
+ * Növekvő körkörös puffer int elemekhez, mindkét végén O(1) beszúrással és törléssel.
+ * Veremként (addLast/pollLast) és sorként (addLast/pollFirst) is használható.
+ */
+class IntDeque {
+    private int[] elements;
+    private int head;   // Az első elem indexe
+    private int size;
+
+    IntDeque() {
+        this(16);
+    }
+
+    IntDeque(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+        elements = new int[capacity];
+    }
+
+    void addFirst(int value) {
+        ensureCapacity();
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = value;
+        size++;
+    }
+
+    void addLast(int value) {
+        ensureCapacity();
+        elements[(head + size) & (elements.length - 1)] = value;
+        size++;
+    }
+
+    int pollFirst() {
+        int value = peekFirst();
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    int pollLast() {
+        int value = peekLast();
+        size--;
+        return value;
+    }
+
+    int peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Az IntDeque üres.");
+        }
+        return elements[head];
+    }
+
+    int peekLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("Az IntDeque üres.");
+        }
+        return elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    /** Az i-edik elem az elejétől számítva (0 <= i < size()). */
+    int get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", méret: " + size);
+        }
+        return elements[(head + i) & (elements.length - 1)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[(head + i) & (elements.length - 1)]);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size < elements.length) {
+            return;
+        }
+        int[] grown = new int[elements.length * 2];
+        for (int i = 0; i < size; i++) {
+            grown[i] = elements[(head + i) & (elements.length - 1)];
+        }
+        elements = grown;
+        head = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+}
+
+// Közös hash függvény a nyílt címzésű táblákhoz (Fibonacci-hash, a felső bitek a legjobbak).
+final class IntHashing {
+    static final int FREE = Integer.MIN_VALUE; // Üres rés jelölése; ezt a kulcsot külön tároljuk
+
+    private IntHashing() {
+    }
+
+    static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    static int capacityFor(int expected) {
+        int needed = Math.max(4, (int) Math.ceil(expected / 0.5));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
+
+/**
+ * Nyílt címzésű (lineáris próbálkozásos) int halmaz dobozolás nélkül.
+ * A kitöltöttség legfeljebb 50%; törléskor a mögötte álló elemek visszacsúsznak,
+ * így nincsenek sírkövek és a keresés rövid marad.
+ */
+class IntHashSet {
+    private int[] keys;
+    private int mask;
+    private int size;
+    private boolean containsFree; // Az IntHashing.FREE értékű kulcs jelen van-e
+
+    IntHashSet() {
+        this(16);
+    }
+
+    IntHashSet(int expectedSize) {
+        allocate(IntHashing.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, IntHashing.FREE);
+        mask = capacity - 1;
+    }
+
+    /** @return true, ha az elem új volt. */
+    boolean add(int key) {
+        if (key == IntHashing.FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            size++;
+            return true;
+        }
+        int i = IntHashing.slot(key, mask);
+        while (keys[i] != IntHashing.FREE) {
+            if (keys[i] == key) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    boolean contains(int key) {
+        if (key == IntHashing.FREE) {
+            return containsFree;
+        }
+        int i = IntHashing.slot(key, mask);
+        int k;
+        while ((k = keys[i]) != IntHashing.FREE) {
+            if (k == key) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /** @return true, ha az elem benne volt. */
+    boolean remove(int key) {
+        if (key == IntHashing.FREE) {
+            if (!containsFree) {
+                return false;
+            }
+            containsFree = false;
+            size--;
+            return true;
+        }
+        int i = IntHashing.slot(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == IntHashing.FREE) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        shiftBack(i);
+        size--;
+        return true;
+    }
+
+    // A törölt rés mögötti láncot visszatömöríti (backward shift deletion).
+    private void shiftBack(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            int k = keys[i];
+            if (k == IntHashing.FREE) {
+                break;
+            }
+            int home = IntHashing.slot(k, mask);
+            // Akkor mozgatható a résbe, ha a saját helye nem esik a (gap, i] intervallumba
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = k;
+                gap = i;
+            }
+        }
+        keys[gap] = IntHashing.FREE;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(keys, IntHashing.FREE);
+        containsFree = false;
+        size = 0;
+    }
+
+    void forEach(IntConsumer action) {
+        if (containsFree) {
+            action.accept(IntHashing.FREE);
+        }
+        for (int k : keys) {
+            if (k != IntHashing.FREE) {
+                action.accept(k);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] old = keys;
+        allocate(capacity);
+        for (int k : old) {
+            if (k != IntHashing.FREE) {
+                int i = IntHashing.slot(k, mask);
+                while (keys[i] != IntHashing.FREE) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+            }
+        }
+    }
+}
+
+/**
+ * Nyílt címzésű int -> int leképezés dobozolás nélkül, ugyanazzal a szerkezettel, mint az IntHashSet.
+ */
+class IntIntMap {
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean containsFree;
+    private int freeValue;
+
+    IntIntMap() {
+        this(16);
+    }
+
+    IntIntMap(int expectedSize) {
+        allocate(IntHashing.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, IntHashing.FREE);
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return A kulcs korábbi értéke, vagy defaultValue, ha nem volt benne.
+     */
+    int put(int key, int value, int defaultValue) {
+        if (key == IntHashing.FREE) {
+            int previous = containsFree ? freeValue : defaultValue;
+            if (!containsFree) {
+                containsFree = true;
+                size++;
+            }
+            freeValue = value;
+            return previous;
+        }
+        int i = IntHashing.slot(key, mask);
+        while (keys[i] != IntHashing.FREE) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return defaultValue;
+    }
+
+    void put(int key, int value) {
+        put(key, value, 0);
+    }
+
+    int get(int key, int defaultValue) {
+        if (key == IntHashing.FREE) {
+            return containsFree ? freeValue : defaultValue;
+        }
+        int i = IntHashing.slot(key, mask);
+        int k;
+        while ((k = keys[i]) != IntHashing.FREE) {
+            if (k == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    boolean containsKey(int key) {
+        if (key == IntHashing.FREE) {
+            return containsFree;
+        }
+        int i = IntHashing.slot(key, mask);
+        int k;
+        while ((k = keys[i]) != IntHashing.FREE) {
+            if (k == key) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /** @return A törölt érték, vagy defaultValue, ha a kulcs nem volt benne. */
+    int remove(int key, int defaultValue) {
+        if (key == IntHashing.FREE) {
+            if (!containsFree) {
+                return defaultValue;
+            }
+            containsFree = false;
+            size--;
+            return freeValue;
+        }
+        int i = IntHashing.slot(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == IntHashing.FREE) {
+                return defaultValue;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        int gap = i;
+        while (true) {
+            i = (i + 1) & mask;
+            int k = keys[i];
+            if (k == IntHashing.FREE) {
+                break;
+            }
+            int home = IntHashing.slot(k, mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = k;
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = IntHashing.FREE;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        Arrays.fill(keys, IntHashing.FREE);
+        containsFree = false;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k != IntHashing.FREE) {
+                int i = IntHashing.slot(k, mask);
+                while (keys[i] != IntHashing.FREE) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer/single-consumer queue of pending direction changes.
+ *
+ * The input thread (e.g. the AWT event thread) offers direction codes, the game thread drains
+ * at most one valid turn per tick. Codes are Direction ordinals (UP, DOWN, LEFT, RIGHT), so
+ * opposite directions differ only in the lowest bit. Neither side locks or allocates: the
+ * indices are AtomicLongs published with lazySet, the entries live in preallocated arrays.
+ *
+ * Because the queue is bounded, an accepted input waits at most 'capacity' ticks before it is
+ * applied or discarded; the consumer also measures the actual input-to-move latency.
+ */
+public final class DirectionInputQueue {
+
+    /** Returned by pollValidTurn when there is no turn to apply this tick. */
+    public static final int NO_TURN = -1;
+
+    public static final int DEFAULT_CAPACITY = 4;
+
+    private final int[] codes;
+    private final long[] enqueueNanos;
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong(); // Written by the consumer only
+    private final AtomicLong tail = new AtomicLong(); // Written by the producer only
+
+    // Producer-local state
+    private long cachedHead;
+    private long droppedInputs;
+
+    // Consumer-local state
+    private long appliedTurns;
+    private long lastLatencyNanos;
+    private long maxLatencyNanos;
+
+    public DirectionInputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Maximum number of pending inputs, rounded up to a power of two.
+     * @throws IllegalArgumentException if capacity is not positive.
+     */
+    public DirectionInputQueue(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        size = Math.max(size, 1);
+        this.codes = new int[size];
+        this.enqueueNanos = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Queues a direction code. Must only be called from the single producer thread.
+     *
+     * @param code A Direction ordinal (0..3).
+     * @return false if the queue was full and the input was dropped.
+     */
+    public boolean offer(int code) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                droppedInputs++;
+                return false;
+            }
+        }
+        int index = (int) t & mask;
+        codes[index] = code & 3;
+        enqueueNanos[index] = System.nanoTime();
+        tail.lazySet(t + 1); // Publishes the entry to the consumer
+        return true;
+    }
+
+    /**
+     * Removes queued inputs until one is a valid turn from the current direction, and returns it.
+     * Inputs repeating the current direction or reversing it are discarded. Must only be called
+     * from the single consumer (game) thread, right before the move it applies to.
+     *
+     * @param currentCode The Direction ordinal the snake is currently moving in.
+     * @return The Direction ordinal to turn to, or NO_TURN.
+     */
+    public int pollValidTurn(int currentCode) {
+        long h = head.get();
+        long t = tail.get();
+        while (h < t) {
+            int index = (int) h & mask;
+            int code = codes[index];
+            long stamp = enqueueNanos[index];
+            h++;
+            if (code != currentCode && (code ^ 1) != currentCode) {
+                head.lazySet(h);
+                long latency = System.nanoTime() - stamp;
+                lastLatencyNanos = latency;
+                if (latency > maxLatencyNanos) {
+                    maxLatencyNanos = latency;
+                }
+                appliedTurns++;
+                return code;
+            }
+        }
+        head.lazySet(h);
+        return NO_TURN;
+    }
+
+    /** Capacity of the queue, i.e. the upper bound of the input-to-move latency in ticks. */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Number of inputs rejected because the queue was full (producer side). */
+    public long getDroppedInputs() {
+        return droppedInputs;
+    }
+
+    /** Number of turns handed to the game (consumer side). */
+    public long getAppliedTurns() {
+        return appliedTurns;
+    }
+
+    /** Latency of the last applied turn in nanoseconds (consumer side). */
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    /** Largest observed input-to-move latency in nanoseconds (consumer side). */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    // Demo: a fast "keyboard" thread against a 60 Hz game loop.
+    public static void main(String[] args) throws InterruptedException {
+        SnakeGame game = new SnakeGame(30, 30, 3L);
+        DirectionInputQueue queue = new DirectionInputQueue();
+        char[] keys = {'w', 'd', 's', 'a'};
+
+        Thread keyboard = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                // Two quick presses inside one tick, e.g. up then left
+                SnakeInputHandler.enqueueDirectionInput(queue, keys[i % 4]);
+                SnakeInputHandler.enqueueDirectionInput(queue, keys[(i + 1) % 4]);
+                try {
+                    Thread.sleep(40);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }, "keyboard");
+        keyboard.start();
+
+        long tickNanos = 1_000_000_000L / 60;
+        long next = System.nanoTime();
+        while (keyboard.isAlive() && !game.isGameOver()) {
+            game.tick(queue);
+            next += tickNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+            }
+        }
+        keyboard.join();
+        System.out.println("Applied turns: " + queue.getAppliedTurns()
+                + ", dropped inputs: " + queue.getDroppedInputs()
+                + ", max input-to-move latency: " + queue.getMaxLatencyNanos() / 1000 + " us"
+                + " (bound: " + queue.capacity() + " ticks)");
+    }
+}
@@ -0,0 +1,600 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Többjátékos Snake aréna szerver: sok kígyó egy közös, nagy táblán.
+ *
+ * A tábla egy közös foglaltsági rács (cellánként a tulajdonos kígyó azonosítója, ÜRES vagy ÉTEL),
+ * így a kígyók egymással és önmagukkal való ütközése egyetlen tömbolvasás. A szerver fix ütemben
+ * léptet; minden lépésben csak a megváltozott cellákat (új fejek, elengedett farkak, étel)
+ * kódolja egyszer egy keretbe, és ugyanazt a bájttömböt küldi ki minden kliensnek.
+ *
+ * Kliensenként egy olvasó és egy író szál fut a helyi TCP kapcsolaton. A kliens 'w', 'a', 's', 'd'
+ * bájtokat küld, amelyek a kígyó DirectionInputQueue sorába kerülnek; a játékszál lépésenként
+ * legfeljebb egy fordulatot vesz ki belőle.
+ *
+ * Üzenetek a kliens felé (mindegyik elején a teljes hossz, int):
+ * <pre>
+ * SNAPSHOT: típus=1 (byte), sorszám (long), játékos azonosító (int), szélesség (int), magasság (int),
+ *           darabszám (int), majd darabszám × [cella (int), érték (short)]
+ * DELTA:    típus=0 (byte), sorszám (long), darabszám (int), majd darabszám × [cella (int), érték (short)]
+ * </pre>
+ * Az érték a cella tulajdonosa: kígyó azonosító (>= 0), CELL_EMPTY vagy CELL_FOOD.
+ */
+public class SnakeArenaServer implements AutoCloseable {
+
+    static final byte FRAME_DELTA = 0;
+    static final byte FRAME_SNAPSHOT = 1;
+    public static final short CELL_EMPTY = -1;
+    public static final short CELL_FOOD = -2;
+
+    private static final int FRAME_HISTORY = 64; // Ennyi lépéssel lemaradó kliens még utoléri a szervert
+    private static final int ENTRY_SIZE = 4 + 2;
+    private static final int RESPAWN_DELAY_TICKS = 20;
+    private static final int INITIAL_GROWTH = 2;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int width;
+    private final int height;
+    private final int cellCount;
+    private final int maxPlayers;
+    private final int foodTarget;
+
+    // Csak a játékszál írja/olvassa
+    private final int[] owner;              // Cella -> kígyó azonosító, CELL_EMPTY vagy CELL_FOOD
+    private final FreeCellIndex freeCells;  // Se kígyó, se étel nem foglalja
+    private final Random random;
+    private final Player[] players;         // Azonosító -> játékos
+    private int foodCount;
+    private long tick;
+    private final int[] changed;            // Az aktuális lépésben megváltozott cellák
+    private final long[] changeStamp;       // Cella -> melyik lépésben került a changed listára
+    private int changedCount;
+
+    // A játékszál publikálja, az író szálak olvassák
+    private final byte[][] frames = new byte[FRAME_HISTORY][];
+    private volatile long publishedSeq;
+    private final Object frameSignal = new Object();
+
+    private final ConcurrentLinkedQueue<Player> joining = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger playerCount = new AtomicInteger();
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+    private ExecutorService connections;
+    private ScheduledExecutorService ticker;
+
+    // Lépésstatisztika (csak a játékszál írja)
+    private final AtomicLong statTicks = new AtomicLong();
+    private final AtomicLong statTickNanos = new AtomicLong();
+    private final AtomicLong statMaxTickNanos = new AtomicLong();
+    private final AtomicLong statFrameBytes = new AtomicLong();
+
+    // Egy csatlakozott kígyó. A test körkörös pufferben van, a fej a végén.
+    private static final class Player {
+        final Socket socket;
+        final DirectionInputQueue input = new DirectionInputQueue();
+        volatile boolean connected = true;
+        volatile byte[] snapshot;   // A csatlakozáskori teljes állapot
+        volatile long snapshotSeq;
+
+        int id = -1;
+        int[] ring = new int[16];
+        int tailIndex;
+        int length;
+        int direction;
+        boolean alive;
+        long respawnTick;
+        int pendingGrowth;
+        int nextHead;
+        boolean grows;
+        boolean eats;
+
+        Player(Socket socket) {
+            this.socket = socket;
+        }
+
+        int head() {
+            return ring[(tailIndex + length - 1) & (ring.length - 1)];
+        }
+
+        void addHead(int cell) {
+            if (length == ring.length) {
+                int[] grown = new int[ring.length * 2];
+                for (int i = 0; i < length; i++) {
+                    grown[i] = ring[(tailIndex + i) & (ring.length - 1)];
+                }
+                ring = grown;
+                tailIndex = 0;
+            }
+            ring[(tailIndex + length) & (ring.length - 1)] = cell;
+            length++;
+        }
+
+        int removeTail() {
+            int cell = ring[tailIndex];
+            tailIndex = (tailIndex + 1) & (ring.length - 1);
+            length--;
+            return cell;
+        }
+
+        void close() {
+            connected = false;
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // A kapcsolat már lezárult
+            }
+        }
+    }
+
+    /**
+     * @param width A tábla szélessége.
+     * @param height A tábla magassága.
+     * @param maxPlayers Az egyszerre játszó kígyók legnagyobb száma.
+     * @param foodTarget Ennyi étel van mindig a táblán (ha van hely).
+     * @param seed A kezdőpozíciók és az ételek seedje.
+     */
+    public SnakeArenaServer(int width, int height, int maxPlayers, int foodTarget, long seed) {
+        if (width <= 0 || height <= 0 || maxPlayers <= 0 || foodTarget < 0) {
+            throw new IllegalArgumentException("Érvénytelen aréna paraméterek.");
+        }
+        this.width = width;
+        this.height = height;
+        this.cellCount = Math.multiplyExact(width, height);
+        this.maxPlayers = Math.min(maxPlayers, Short.MAX_VALUE);
+        this.foodTarget = foodTarget;
+        this.owner = new int[cellCount];
+        Arrays.fill(owner, CELL_EMPTY);
+        this.freeCells = new FreeCellIndex(cellCount);
+        this.random = new Random(seed);
+        this.players = new Player[this.maxPlayers];
+        this.changed = new int[cellCount];
+        this.changeStamp = new long[cellCount];
+    }
+
+    /**
+     * Elindítja a szervert a helyi (loopback) címen.
+     *
+     * @param port A port, vagy 0 egy szabad porthoz.
+     * @param tickMillis A lépések közötti idő ezredmásodpercben.
+     * @throws IOException Ha a port nem nyitható meg.
+     */
+    public void start(int port, long tickMillis) throws IOException {
+        serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        running = true;
+        connections = Executors.newCachedThreadPool(daemonThreads("arena-conn"));
+        ticker = Executors.newSingleThreadScheduledExecutor(daemonThreads("arena-tick"));
+        connections.execute(this::acceptLoop);
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getPlayerCount() {
+        return playerCount.get();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Player player = new Player(socket);
+                joining.add(player);
+                connections.execute(() -> readLoop(player));
+                connections.execute(() -> writeLoop(player));
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Hiba a kapcsolat fogadásakor: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // A kliens iránybillentyűi a kígyó bemeneti sorába kerülnek (ez a szál az egyetlen termelő).
+    private void readLoop(Player player) {
+        try (InputStream in = player.socket.getInputStream()) {
+            int b;
+            while ((b = in.read()) >= 0) {
+                SnakeInputHandler.enqueueDirectionInput(player.input, (char) b);
+            }
+        } catch (IOException ignored) {
+            // A kapcsolat megszakadt
+        } finally {
+            player.close();
+        }
+    }
+
+    // Először a csatlakozáskori pillanatképet, majd sorban minden későbbi keretet kiküld.
+    private void writeLoop(Player player) {
+        try (OutputStream out = new BufferedOutputStream(player.socket.getOutputStream(), 1 << 16)) {
+            synchronized (frameSignal) {
+                while (player.snapshot == null && player.connected && running) {
+                    frameSignal.wait();
+                }
+            }
+            byte[] snapshot = player.snapshot;
+            if (snapshot == null) {
+                return;
+            }
+            out.write(snapshot);
+            out.flush();
+            long seq = player.snapshotSeq + 1;
+            while (player.connected && running) {
+                long published = publishedSeq;
+                if (published < seq) {
+                    synchronized (frameSignal) {
+                        while (publishedSeq < seq && player.connected && running) {
+                            frameSignal.wait();
+                        }
+                    }
+                    continue;
+                }
+                for (; seq <= published; seq++) {
+                    byte[] frame = frames[(int) (seq % FRAME_HISTORY)];
+                    if (ByteBuffer.wrap(frame).getLong(5) != seq) {
+                        return; // A kliens túl sokat lemaradt, a keretet már felülírtuk
+                    }
+                    out.write(frame);
+                }
+                out.flush();
+            }
+        } catch (IOException ignored) {
+            // A kapcsolat megszakadt
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            player.close();
+        }
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        try {
+            tick++;
+            changedCount = 0;
+            removeDisconnected();
+            boolean joined = admitJoining();
+            respawn();
+            moveSnakes();
+            replenishFood();
+
+            byte[] frame = encodeDelta(tick);
+            frames[(int) (tick % FRAME_HISTORY)] = frame;
+            if (joined) {
+                byte[] snapshot = null;
+                for (Player p : players) {
+                    if (p != null && p.snapshot == null) {
+                        if (snapshot == null) {
+                            snapshot = encodeSnapshot(tick, p.id);
+                        } else {
+                            snapshot = snapshot.clone();
+                            ByteBuffer.wrap(snapshot).putInt(13, p.id);
+                        }
+                        p.snapshotSeq = tick;
+                        p.snapshot = snapshot;
+                    }
+                }
+            }
+            publishedSeq = tick;
+            synchronized (frameSignal) {
+                frameSignal.notifyAll();
+            }
+            statFrameBytes.addAndGet(frame.length);
+        } catch (RuntimeException e) {
+            System.err.println("Hiba a lépés közben: " + e);
+        }
+        long nanos = System.nanoTime() - start;
+        statTicks.incrementAndGet();
+        statTickNanos.addAndGet(nanos);
+        if (nanos > statMaxTickNanos.get()) {
+            statMaxTickNanos.set(nanos);
+        }
+    }
+
+    private void removeDisconnected() {
+        for (int id = 0; id < maxPlayers; id++) {
+            Player p = players[id];
+            if (p != null && !p.connected) {
+                if (p.alive) {
+                    releaseBody(p);
+                }
+                players[id] = null;
+                playerCount.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean admitJoining() {
+        boolean joined = false;
+        int nextId = 0;
+        Player p;
+        while ((p = joining.poll()) != null) {
+            while (nextId < maxPlayers && players[nextId] != null) {
+                nextId++;
+            }
+            if (nextId == maxPlayers || !p.connected) {
+                p.close(); // Megtelt az aréna
+                continue;
+            }
+            p.id = nextId;
+            p.respawnTick = tick;
+            players[nextId] = p;
+            playerCount.incrementAndGet();
+            joined = true;
+        }
+        return joined;
+    }
+
+    private void respawn() {
+        for (Player p : players) {
+            if (p != null && !p.alive && p.respawnTick <= tick) {
+                int cell = freeCells.randomFreeCell(random);
+                if (cell == FreeCellIndex.BOARD_FULL) {
+                    return;
+                }
+                p.length = 0;
+                p.tailIndex = 0;
+                p.direction = random.nextInt(4);
+                p.pendingGrowth = INITIAL_GROWTH;
+                p.alive = true;
+                claim(p, cell);
+            }
+        }
+    }
+
+    private void moveSnakes() {
+        // 1. Új fejek kiszámítása az aktuális rácson
+        for (Player p : players) {
+            if (p == null || !p.alive) {
+                continue;
+            }
+            int turn = p.input.pollValidTurn(p.direction);
+            if (turn != DirectionInputQueue.NO_TURN) {
+                p.direction = turn;
+            }
+            Direction d = DIRECTIONS[p.direction];
+            int head = p.head();
+            int x = (head % width + d.dx + width) % width;
+            int y = (head / width + d.dy + height) % height;
+            p.nextHead = y * width + x;
+            p.eats = owner[p.nextHead] == CELL_FOOD;
+            p.grows = p.eats || p.pendingGrowth > 0;
+            if (!p.eats && p.pendingGrowth > 0) {
+                p.pendingGrowth--;
+            }
+        }
+        // 2. A nem növő kígyók farka felszabadul, így mások (és ők maguk) beléphetnek a helyére
+        for (Player p : players) {
+            if (p != null && p.alive && !p.grows) {
+                int tail = p.removeTail();
+                owner[tail] = CELL_EMPTY;
+                freeCells.release(tail);
+                markChanged(tail);
+            }
+        }
+        // 3. Fejek elhelyezése azonosító sorrendben; foglalt cellába lépő kígyó elpusztul
+        for (Player p : players) {
+            if (p == null || !p.alive) {
+                continue;
+            }
+            int cell = p.nextHead;
+            if (owner[cell] >= 0) {
+                releaseBody(p);
+                p.alive = false;
+                p.respawnTick = tick + RESPAWN_DELAY_TICKS;
+                continue;
+            }
+            if (owner[cell] == CELL_FOOD) {
+                foodCount--;
+            }
+            claim(p, cell);
+        }
+    }
+
+    private void claim(Player p, int cell) {
+        if (owner[cell] == CELL_EMPTY) {
+            freeCells.occupy(cell);
+        }
+        owner[cell] = p.id;
+        p.addHead(cell);
+        markChanged(cell);
+    }
+
+    private void releaseBody(Player p) {
+        while (p.length > 0) {
+            int cell = p.removeTail();
+            owner[cell] = CELL_EMPTY;
+            freeCells.release(cell);
+            markChanged(cell);
+        }
+        p.alive = false;
+    }
+
+    private void replenishFood() {
+        while (foodCount < foodTarget) {
+            int cell = freeCells.randomFreeCell(random);
+            if (cell == FreeCellIndex.BOARD_FULL) {
+                return;
+            }
+            freeCells.occupy(cell);
+            owner[cell] = CELL_FOOD;
+            foodCount++;
+            markChanged(cell);
+        }
+    }
+
+    private void markChanged(int cell) {
+        if (changeStamp[cell] != tick) {
+            changeStamp[cell] = tick;
+            changed[changedCount++] = cell;
+        }
+    }
+
+    private byte[] encodeDelta(long seq) {
+        int length = 4 + 1 + 8 + 4 + changedCount * ENTRY_SIZE;
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        buf.putInt(length).put(FRAME_DELTA).putLong(seq).putInt(changedCount);
+        for (int i = 0; i < changedCount; i++) {
+            int cell = changed[i];
+            buf.putInt(cell).putShort((short) owner[cell]);
+        }
+        return buf.array();
+    }
+
+    private byte[] encodeSnapshot(long seq, int playerId) {
+        int count = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (owner[cell] != CELL_EMPTY) {
+                count++;
+            }
+        }
+        int length = 4 + 1 + 8 + 4 + 4 + 4 + 4 + count * ENTRY_SIZE;
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        buf.putInt(length).put(FRAME_SNAPSHOT).putLong(seq).putInt(playerId)
+                .putInt(width).putInt(height).putInt(count);
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (owner[cell] != CELL_EMPTY) {
+                buf.putInt(cell).putShort((short) owner[cell]);
+            }
+        }
+        return buf.array();
+    }
+
+    public void resetTickStats() {
+        statTicks.set(0);
+        statTickNanos.set(0);
+        statMaxTickNanos.set(0);
+        statFrameBytes.set(0);
+    }
+
+    public long getAverageTickNanos() {
+        long ticks = statTicks.get();
+        return ticks == 0 ? 0 : statTickNanos.get() / ticks;
+    }
+
+    public long getMaxTickNanos() {
+        return statMaxTickNanos.get();
+    }
+
+    public long getAverageFrameBytes() {
+        long ticks = statTicks.get();
+        return ticks == 0 ? 0 : statFrameBytes.get() / ticks;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (Player p : players) {
+            if (p != null) {
+                p.close();
+            }
+        }
+        Player p;
+        while ((p = joining.poll()) != null) {
+            p.close();
+        }
+        synchronized (frameSignal) {
+            frameSignal.notifyAll();
+        }
+        if (connections != null) {
+            connections.shutdownNow();
+        }
+    }
+
+    /**
+     * Helyi terhelésgenerátor: egyre több bot csatlakozik, és mérjük a lépések idejét.
+     * Használat: java SnakeArenaServer [másodperc játékosszámonként]
+     */
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int[] playerCounts = {50, 100, 200, 400};
+        System.out.println("játékos | átl. lépés (µs) | max lépés (µs) | ns / kígyó | átl. keret (bájt)");
+        for (int count : playerCounts) {
+            try (SnakeArenaServer server = new SnakeArenaServer(512, 512, count, count * 2, 1L)) {
+                server.start(0, 50);
+                List<Socket> bots = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    Socket bot = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                    bots.add(bot);
+                    Thread t = new Thread(() -> runBot(bot), "bot");
+                    t.setDaemon(true);
+                    t.start();
+                }
+                while (server.getPlayerCount() < count) {
+                    Thread.sleep(10);
+                }
+                Thread.sleep(500); // Bemelegítés
+                server.resetTickStats();
+                Thread.sleep(seconds * 1000L);
+                long avg = server.getAverageTickNanos();
+                System.out.printf("%7d | %15.1f | %14.1f | %10d | %d%n", count, avg / 1000.0,
+                        server.getMaxTickNanos() / 1000.0, avg / count, server.getAverageFrameBytes());
+                for (Socket bot : bots) {
+                    bot.close();
+                }
+            }
+        }
+    }
+
+    // Egy bot: olvassa a kereteket, és néha véletlen irányba fordul.
+    private static void runBot(Socket socket) {
+        byte[] keys = {'w', 'a', 's', 'd'};
+        Random random = new Random(socket.getLocalPort());
+        try (DataInputStream in = new DataInputStream(socket.getInputStream());
+             OutputStream out = socket.getOutputStream()) {
+            byte[] frame = new byte[1 << 16];
+            while (true) {
+                int length = in.readInt();
+                if (length - 4 > frame.length) {
+                    frame = new byte[length];
+                }
+                in.readFully(frame, 0, length - 4);
+                if (random.nextInt(8) == 0) {
+                    out.write(keys[random.nextInt(4)]);
+                }
+            }
+        } catch (EOFException ignored) {
+            // A szerver lezárta a kapcsolatot
+        } catch (IOException ignored) {
+            // A bot leállt
+        }
+    }
+}
@@ -0,0 +1,321 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Tömör bináris visszajátszás a SnakeGame-hez.
+ *
+ * A fájl felépítése (big-endian):
+ * <pre>
+ * fejléc:     magic 'SNKR' (int), verzió (short), szélesség (int), magasság (int),
+ *             seed (long), kulcskocka-intervallum (int)
+ * rekordok:   MOVES    = típus (byte), kezdő lépés (int), darabszám (short), 2 bites irányok, 4 / bájt
+ *             KEYFRAME = típus (byte), lépés (int), hossz (int), SnakeGame.writeState() tartalma
+ * </pre>
+ * Lépésenként egy 2 bites iránykód kerül a fájlba (MOVES_PER_RECORD lépésenként egy rekordban),
+ * és KEYFRAME_INTERVAL lépésenként egy teljes állapot. A fájlt csak hozzáfűzéssel írjuk.
+ * Lejátszáskor a fájl memóriába van képezve; egy tetszőleges lépésre ugráshoz a legközelebbi
+ * korábbi kulcskockát töltjük be, és onnan legfeljebb egy intervallumnyit léptetünk előre.
+ *
+ * Egy kulcskocka a 9 bájtos rekordfej után 25 + 4 * a kígyó hossza bájt, a tábla méretétől
+ * függetlenül: az ételek helyét csak a generátor állapota és a test határozza meg, így a szabad
+ * cellákat nem kell menteni.
+ */
+public class SnakeReplay {
+
+    static final int MAGIC = 0x534E4B52; // "SNKR"
+    static final short VERSION = 2; // 2: a kulcskocka nem tartalmazza a szabad cellákat
+    static final int HEADER_SIZE = 4 + 2 + 4 + 4 + 8 + 4;
+    static final byte TYPE_MOVES = 1;
+    static final byte TYPE_KEYFRAME = 2;
+    static final int MOVES_PER_RECORD = 256;
+
+    /** Alapértelmezett kulcskocka-intervallum: 10 lépés/s mellett kb. 27 percenként egy. */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 1 << 14;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private SnakeReplay() {
+    }
+
+    /**
+     * Egy futó játék lépéseit rögzíti. A játékot a move() metóduson keresztül kell léptetni,
+     * amely a lépés előtt felírja az aktuális irányt.
+     */
+    public static class Recorder implements AutoCloseable {
+        private final SnakeGame game;
+        private final FileChannel channel;
+        private final int keyframeInterval;
+        private final byte[] pendingMoves = new byte[MOVES_PER_RECORD / 4];
+        private ByteBuffer buffer;
+        private int tick;
+        private int pendingStart;
+
+        /**
+         * Megnyitja (felülírja) a visszajátszás fájlt egy frissen létrehozott játékhoz.
+         *
+         * @param file A célfájl.
+         * @param game A rögzítendő játék; még egyszer sem léptethették.
+         * @param keyframeInterval Ennyi lépésenként kerül teljes állapot a fájlba.
+         * @throws IOException Ha a fájl nem írható.
+         */
+        public Recorder(Path file, SnakeGame game, int keyframeInterval) throws IOException {
+            if (keyframeInterval <= 0) {
+                throw new IllegalArgumentException("A kulcskocka-intervallumnak pozitívnak kell lennie.");
+            }
+            this.game = game;
+            this.keyframeInterval = keyframeInterval;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocate(Math.max(HEADER_SIZE, 1 + 4 + 2 + pendingMoves.length));
+            buffer.putInt(MAGIC).putShort(VERSION)
+                    .putInt(game.getBoardWidth()).putInt(game.getBoardHeight())
+                    .putLong(game.getSeed()).putInt(keyframeInterval);
+            write();
+        }
+
+        /**
+         * Felírja az aktuális irányt (és ha esedékes, egy kulcskockát), majd lépteti a játékot.
+         *
+         * @throws IOException Ha az írás sikertelen.
+         */
+        public void move() throws IOException {
+            if (tick > 0 && tick % keyframeInterval == 0) {
+                writeKeyframe();
+            }
+            int code = game.getCurrentDirection().ordinal();
+            int index = tick - pendingStart;
+            pendingMoves[index >>> 2] |= (byte) (code << ((index & 3) * 2));
+            tick++;
+            if (tick - pendingStart == MOVES_PER_RECORD) {
+                flushMoves();
+            }
+            game.move();
+        }
+
+        public int getTick() {
+            return tick;
+        }
+
+        private void writeKeyframe() throws IOException {
+            int size = game.stateSize();
+            if (buffer.capacity() < 1 + 4 + 4 + size) {
+                buffer = ByteBuffer.allocate(1 + 4 + 4 + size);
+            }
+            buffer.put(TYPE_KEYFRAME).putInt(tick).putInt(size);
+            game.writeState(buffer);
+            write();
+        }
+
+        private void flushMoves() throws IOException {
+            int count = tick - pendingStart;
+            if (count == 0) {
+                return;
+            }
+            buffer.put(TYPE_MOVES).putInt(pendingStart).putShort((short) count)
+                    .put(pendingMoves, 0, (count + 3) >>> 2);
+            write();
+            Arrays.fill(pendingMoves, (byte) 0);
+            pendingStart = tick;
+        }
+
+        private void write() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Kiírja a még pufferelt lépéseket, és lezárja a fájlt.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flushMoves();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Memóriába képzett visszajátszás fájl, tetszőleges lépésre ugrással.
+     */
+    public static class Player {
+        private final MappedByteBuffer data;
+        private final int width;
+        private final int height;
+        private final long seed;
+        private final int[] movesOffsets;    // Az i-edik MOVES rekord irányadatainak kezdete
+        private final int[] keyframeTicks;
+        private final int[] keyframeOffsets; // A kulcskockák állapotadatainak kezdete
+        private final int tickCount;
+
+        private Player(MappedByteBuffer data) throws IOException {
+            this.data = data;
+            if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+                throw new IOException("Nem Snake visszajátszás fájl.");
+            }
+            if (data.getShort(4) != VERSION) {
+                throw new IOException("Nem támogatott visszajátszás verzió: " + data.getShort(4));
+            }
+            this.width = data.getInt(6);
+            this.height = data.getInt(10);
+            this.seed = data.getLong(14);
+
+            // A rekordfejlécek egyszeri bejárása; az adatokat csak átugorjuk
+            int[] moves = new int[16];
+            int moveCount = 0;
+            int[] kfTicks = new int[4];
+            int[] kfOffsets = new int[4];
+            int kfCount = 0;
+            int ticks = 0;
+            int pos = HEADER_SIZE;
+            int limit = data.limit();
+            while (pos + 1 + 4 + 2 <= limit) {
+                byte type = data.get(pos);
+                int recordTick = data.getInt(pos + 1);
+                if (type == TYPE_MOVES) {
+                    int count = data.getShort(pos + 5) & 0xFFFF;
+                    int end = pos + 7 + ((count + 3) >>> 2);
+                    if (end > limit || recordTick != moveCount * MOVES_PER_RECORD) {
+                        break; // Csonka vagy hibás rekord: a lejátszás eddig tart
+                    }
+                    if (moveCount == moves.length) {
+                        moves = Arrays.copyOf(moves, moveCount * 2);
+                    }
+                    moves[moveCount++] = pos + 7;
+                    ticks = recordTick + count;
+                    pos = end;
+                } else if (type == TYPE_KEYFRAME) {
+                    int end = pos + 9 + (pos + 9 <= limit ? data.getInt(pos + 5) : 0);
+                    if (end > limit) {
+                        break;
+                    }
+                    if (kfCount == kfTicks.length) {
+                        kfTicks = Arrays.copyOf(kfTicks, kfCount * 2);
+                        kfOffsets = Arrays.copyOf(kfOffsets, kfCount * 2);
+                    }
+                    kfTicks[kfCount] = recordTick;
+                    kfOffsets[kfCount++] = pos + 9;
+                    pos = end;
+                } else {
+                    break;
+                }
+            }
+            this.movesOffsets = Arrays.copyOf(moves, moveCount);
+            // Csak azokat a kulcskockákat tartjuk meg, amelyekig a lépések is megvannak
+            int usable = 0;
+            while (usable < kfCount && kfTicks[usable] <= ticks) {
+                usable++;
+            }
+            this.keyframeTicks = Arrays.copyOf(kfTicks, usable);
+            this.keyframeOffsets = Arrays.copyOf(kfOffsets, usable);
+            this.tickCount = ticks;
+        }
+
+        /**
+         * Memóriába képezi és indexeli a visszajátszás fájlt.
+         *
+         * @param file A visszajátszás fájl.
+         * @return A lejátszó.
+         * @throws IOException Ha a fájl nem olvasható vagy nem visszajátszás.
+         */
+        public static Player open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new Player(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        /** A rögzített lépések száma. */
+        public int getTickCount() {
+            return tickCount;
+        }
+
+        /**
+         * Visszaadja az adott lépésben érvényes irányt.
+         *
+         * @param tick A lépés sorszáma (0 <= tick < getTickCount()).
+         * @return A lépés iránya.
+         */
+        public Direction directionAt(int tick) {
+            if (tick < 0 || tick >= tickCount) {
+                throw new IndexOutOfBoundsException("Nincs ilyen lépés: " + tick);
+            }
+            int index = tick % MOVES_PER_RECORD;
+            int packed = data.get(movesOffsets[tick / MOVES_PER_RECORD] + (index >>> 2));
+            return DIRECTIONS[(packed >>> ((index & 3) * 2)) & 3];
+        }
+
+        /**
+         * Előállítja a játék állapotát 'tick' darab lépés után.
+         *
+         * @param tick A kívánt lépés (0 <= tick <= getTickCount()).
+         * @return Egy új játék a kért állapotban.
+         */
+        public SnakeGame seek(int tick) {
+            if (tick < 0 || tick > tickCount) {
+                throw new IndexOutOfBoundsException("Nincs ilyen lépés: " + tick);
+            }
+            SnakeGame game = new SnakeGame(width, height, seed);
+            int k = Arrays.binarySearch(keyframeTicks, tick);
+            if (k < 0) {
+                k = -k - 2; // A legnagyobb, tick-nél nem nagyobb kulcskocka
+            }
+            int from = 0;
+            if (k >= 0) {
+                game.readState(data.duplicate().position(keyframeOffsets[k]));
+                from = keyframeTicks[k];
+            }
+            for (int t = from; t < tick; t++) {
+                game.setDirection(directionAt(t));
+                game.move();
+            }
+            return game;
+        }
+    }
+
+    // Demo: egy robotpilóta által játszott "óra" rögzítése, mérete és véletlen ugrások ideje.
+    public static void main(String[] args) throws IOException {
+        int ticks = 36_000; // Egy óra 10 lépés/s mellett
+        Path file = Files.createTempFile("snake", ".replay");
+        SnakeGame game = new SnakeGame(20, 20, 99L);
+        SnakeAutopilot pilot = new SnakeAutopilot(20, 20);
+        int[] checkpoints = {0, 1, 4_095, 16_383, 16_384, 20_000, 33_000, 35_999};
+        int[] expectedHead = new int[checkpoints.length];
+        int[] expectedScore = new int[checkpoints.length];
+        try (Recorder recorder = new Recorder(file, game, DEFAULT_KEYFRAME_INTERVAL)) {
+            for (int t = 0, c = 0; t < ticks && !game.isGameOver(); t++) {
+                while (c < checkpoints.length && checkpoints[c] == t) {
+                    expectedHead[c] = game.getHeadCell();
+                    expectedScore[c++] = game.getScore();
+                }
+                pilot.steer(game);
+                recorder.move();
+            }
+        }
+        System.out.println("Fájlméret " + ticks + " lépésre: " + Files.size(file) + " bájt (kulcskocka: "
+                + game.stateSize() + " bájt)");
+
+        Player player = Player.open(file);
+        for (int c = 0; c < checkpoints.length; c++) {
+            if (checkpoints[c] > player.getTickCount()) {
+                continue;
+            }
+            long start = System.nanoTime();
+            SnakeGame replayed = player.seek(checkpoints[c]);
+            long micros = (System.nanoTime() - start) / 1000;
+            boolean ok = replayed.getHeadCell() == expectedHead[c] && replayed.getScore() == expectedScore[c];
+            System.out.println("Ugrás a(z) " + checkpoints[c] + ". lépésre: " + micros + " µs, "
+                    + (ok ? "egyezik" : "ELTÉR"));
+        }
+        Files.delete(file);
+    }
+}
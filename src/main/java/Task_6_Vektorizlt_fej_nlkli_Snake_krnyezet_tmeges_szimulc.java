@@ -0,0 +1,377 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Fej nélküli (megjelenítés nélküli) kötegelt Snake motor tömeges szimulációhoz.
+ * N játékot tárol struct-of-arrays formában: minden játék állapota ugyanazokban a primitív
+ * tömbökben van, a játék indexével eltolva. A step() egyszerre lépteti az összes játékot,
+ * a jutalmakat, a vége-jelzőket és a megfigyeléseket a hívó által előre lefoglalt tömbökbe írja,
+ * és a köteget szétosztja az összes processzormag között.
+ *
+ * A szabályok azonosak a SnakeGame szabályaival (kezdő kígyó, irányváltás, körbefordulás,
+ * önütközés, ételgenerálás), és ugyanabból a seedből ugyanaz a játék jön ki. Egyetlen
+ * eltérés, hogy a tábla megtelésekor a játék véget ér (done = true).
+ */
+public class SnakeBatchEnv {
+
+    /** Akció: az aktuális irány megtartása. Egyébként a Direction ordinal értéke. */
+    public static final int ACTION_KEEP = -1;
+
+    // Megfigyelési kódok cellánként
+    public static final byte OBS_EMPTY = 0;
+    public static final byte OBS_BODY = 1;
+    public static final byte OBS_HEAD = 2;
+    public static final byte OBS_FOOD = 3;
+
+    public static final float REWARD_FOOD = 1.0f;
+    public static final float REWARD_DEATH = -1.0f;
+
+    private static final int MIN_GAMES_PER_TASK = 256; // Ennél kisebb darabokra nem éri meg szétosztani
+
+    private static final int[] DX = new int[4];
+    private static final int[] DY = new int[4];
+
+    static {
+        for (Direction d : Direction.values()) {
+            DX[d.ordinal()] = d.dx;
+            DY[d.ordinal()] = d.dy;
+        }
+    }
+
+    private final int numGames;
+    private final int width;
+    private final int height;
+    private final int cellCount;
+    private final int wordCount;
+
+    // Játékonkénti skalár állapot
+    private final int[] tailIndex;
+    private final int[] length;
+    private final int[] foodCell;
+    private final int[] direction;
+    private final int[] score;
+    private final long[] rngState;
+    private final boolean[] finished;
+
+    // Játékonként cellCount (illetve wordCount) méretű szeletek
+    private final int[] body;        // A kígyó körkörös puffere, a farok a tailIndex-en
+    private final long[] occupied;   // Foglaltsági bittérkép
+
+    /**
+     * Létrehoz egy köteget a megadott számú, azonos méretű játékkal.
+     * A játékok a reset() vagy resetAll() hívásig befejezettnek számítanak.
+     *
+     * @param numGames A játékok száma.
+     * @param width A tábla szélessége.
+     * @param height A tábla magassága.
+     * @throws IllegalArgumentException Ha valamelyik méret nem pozitív, vagy a tábla nem fér el benne a kezdő kígyó.
+     */
+    public SnakeBatchEnv(int numGames, int width, int height) {
+        if (numGames <= 0 || width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("A játékok számának és a tábla méreteinek pozitívnak kell lennie.");
+        }
+        if (width < 3) {
+            throw new IllegalArgumentException("A tábla szélessége legalább 3 kell legyen a kezdő kígyóhoz.");
+        }
+        this.numGames = numGames;
+        this.width = width;
+        this.height = height;
+        this.cellCount = Math.multiplyExact(width, height);
+        this.wordCount = (cellCount + 63) >>> 6;
+
+        this.tailIndex = new int[numGames];
+        this.length = new int[numGames];
+        this.foodCell = new int[numGames];
+        this.direction = new int[numGames];
+        this.score = new int[numGames];
+        this.rngState = new long[numGames];
+        this.finished = new boolean[numGames];
+        Arrays.fill(finished, true);
+
+        int sliceCells = Math.multiplyExact(numGames, cellCount);
+        this.body = new int[sliceCells];
+        this.occupied = new long[Math.multiplyExact(numGames, wordCount)];
+    }
+
+    public int getNumGames() {
+        return numGames;
+    }
+
+    /** A megfigyelési puffer szükséges mérete: játékonként egy bájt cellánként. */
+    public int observationSize() {
+        return numGames * cellCount;
+    }
+
+    /**
+     * Új játékot indít a megadott indexen, a SnakeGame(width, height, seed) kezdőállapotával.
+     *
+     * @param game A játék indexe.
+     * @param seed A játék seedje.
+     * @param observations A megfigyelési puffer; a játék szelete teljesen újraíródik. Lehet null.
+     */
+    public void reset(int game, long seed, byte[] observations) {
+        int base = game * cellCount;
+        Arrays.fill(occupied, game * wordCount, (game + 1) * wordCount, 0L);
+        if (observations != null) {
+            Arrays.fill(observations, base, base + cellCount, OBS_EMPTY);
+        }
+
+        tailIndex[game] = 0;
+        length[game] = 0;
+        score[game] = 0;
+        direction[game] = Direction.RIGHT.ordinal();
+        rngState[game] = SnakeRng.initialState(seed);
+        finished[game] = false;
+
+        addHead(game, 0, observations); // Kezdő kígyó: (0,0), (1,0), (2,0)
+        addHead(game, 1, observations);
+        addHead(game, 2, observations);
+        if (observations != null) {
+            observations[base] = OBS_BODY;
+            observations[base + 1] = OBS_BODY;
+        }
+        spawnFood(game, observations);
+    }
+
+    /**
+     * Minden játékot újraindít a hozzá tartozó seeddel.
+     *
+     * @param seeds Játékonként egy seed.
+     * @param observations A megfigyelési puffer (observationSize() méretű), vagy null.
+     */
+    public void resetAll(long[] seeds, byte[] observations) {
+        if (seeds.length < numGames) {
+            throw new IllegalArgumentException("Minden játékhoz kell egy seed.");
+        }
+        for (int g = 0; g < numGames; g++) {
+            reset(g, seeds[g], observations);
+        }
+    }
+
+    /**
+     * Minden játékot egy lépéssel előre visz.
+     * A megfigyeléseket inkrementálisan frissíti (csak a megváltozott cellákat írja),
+     * ezért ugyanazt a puffert kell átadni, amelyet a reset() is kapott.
+     * A már befejezett játékok nem változnak: jutalmuk 0, a done jelzőjük true.
+     *
+     * @param actions Játékonként egy akció: ACTION_KEEP vagy egy Direction ordinal.
+     * @param rewards Kimenet: a lépés jutalma játékonként.
+     * @param dones Kimenet: true, ha a játék véget ért.
+     * @param observations Be- és kimenet: a táblák állapota, vagy null.
+     */
+    public void step(int[] actions, float[] rewards, boolean[] dones, byte[] observations) {
+        if (actions.length < numGames || rewards.length < numGames || dones.length < numGames) {
+            throw new IllegalArgumentException("A pufferek mérete legalább a játékok száma kell legyen.");
+        }
+        int tasks = Math.min(Runtime.getRuntime().availableProcessors() * 4,
+                (numGames + MIN_GAMES_PER_TASK - 1) / MIN_GAMES_PER_TASK);
+        if (tasks <= 1) {
+            stepRange(0, numGames, actions, rewards, dones, observations);
+            return;
+        }
+        int chunk = (numGames + tasks - 1) / tasks;
+        IntStream.range(0, tasks).parallel().forEach(t -> stepRange(
+                t * chunk, Math.min(numGames, (t + 1) * chunk), actions, rewards, dones, observations));
+    }
+
+    private void stepRange(int from, int to, int[] actions, float[] rewards, boolean[] dones, byte[] observations) {
+        for (int g = from; g < to; g++) {
+            if (finished[g]) {
+                rewards[g] = 0.0f;
+                dones[g] = true;
+                continue;
+            }
+            rewards[g] = stepGame(g, actions[g], observations);
+            dones[g] = finished[g];
+        }
+    }
+
+    // Egy játék egy lépése; a SnakeGame.changeDirection() és move() szabályait követi.
+    private float stepGame(int g, int action, byte[] observations) {
+        int dir = direction[g];
+        if (action >= 0 && action < 4 && (action ^ 1) != dir) { // Az ellentétes irány párja ordinal ^ 1
+            dir = action;
+            direction[g] = dir;
+        }
+
+        int base = g * cellCount;
+        int head = body[base + ringIndex(tailIndex[g] + length[g] - 1)];
+        int x = head % width + DX[dir];
+        int y = head / width + DY[dir];
+        if (x < 0) x += width; else if (x >= width) x -= width;
+        if (y < 0) y += height; else if (y >= height) y -= height;
+        int newHead = y * width + x;
+        boolean eats = newHead == foodCell[g];
+
+        int tail = body[base + tailIndex[g]];
+        if (isOccupied(g, newHead) && (eats || newHead != tail)) {
+            finished[g] = true;
+            return REWARD_DEATH;
+        }
+
+        if (!eats) {
+            removeTail(g, observations);
+        }
+        if (observations != null) {
+            observations[base + head] = OBS_BODY;
+        }
+        addHead(g, newHead, observations);
+
+        if (!eats) {
+            return 0.0f;
+        }
+        score[g]++;
+        spawnFood(g, observations);
+        return REWARD_FOOD;
+    }
+
+    private int ringIndex(int index) {
+        return index >= cellCount ? index - cellCount : index;
+    }
+
+    private boolean isOccupied(int g, int cell) {
+        return (occupied[g * wordCount + (cell >>> 6)] & (1L << cell)) != 0;
+    }
+
+    private void addHead(int g, int cell, byte[] observations) {
+        int base = g * cellCount;
+        body[base + ringIndex(tailIndex[g] + length[g])] = cell;
+        length[g]++;
+        occupied[g * wordCount + (cell >>> 6)] |= 1L << cell;
+
+        if (observations != null) {
+            observations[base + cell] = OBS_HEAD;
+        }
+    }
+
+    private void removeTail(int g, byte[] observations) {
+        int base = g * cellCount;
+        int cell = body[base + tailIndex[g]];
+        tailIndex[g] = ringIndex(tailIndex[g] + 1);
+        length[g]--;
+        occupied[g * wordCount + (cell >>> 6)] &= ~(1L << cell);
+
+        if (observations != null) {
+            observations[base + cell] = OBS_EMPTY;
+        }
+    }
+
+    private void spawnFood(int g, byte[] observations) {
+        int size = cellCount - length[g];
+        if (size == 0) {
+            foodCell[g] = FreeCellIndex.BOARD_FULL;
+            finished[g] = true; // A kígyó kitölti a táblát
+            return;
+        }
+        int base = g * cellCount;
+        // A SnakeGame szabálya: a k-adik szabad cella növekvő cellasorrendben
+        int cell = SnakeBody.nthFreeCell(occupied, g * wordCount, SnakeRng.nextInt(rngState, g, size));
+        foodCell[g] = cell;
+        if (observations != null) {
+            observations[base + cell] = OBS_FOOD;
+        }
+    }
+
+    public boolean isDone(int game) {
+        return finished[game];
+    }
+
+    public int getScore(int game) {
+        return score[game];
+    }
+
+    public int getLength(int game) {
+        return length[game];
+    }
+
+    // Pakolt cellakoordináták (y * szélesség + x), mint a SnakeGame-ben.
+    public int getHeadCell(int game) {
+        return body[game * cellCount + ringIndex(tailIndex[game] + length[game] - 1)];
+    }
+
+    public int getFoodCell(int game) {
+        return foodCell[game];
+    }
+
+    /**
+     * Ellenőrzi, hogy a köteg ugyanazt játssza-e le, mint az egyedi SnakeGame példányok,
+     * majd megméri az áteresztőképességet.
+     */
+    public static void main(String[] args) {
+        int width = 16, height = 16;
+
+        // 1. Egyezés a SnakeGame szabályaival azonos seedek és akciók mellett
+        int checkGames = 64, checkSteps = 2000;
+        SnakeBatchEnv env = new SnakeBatchEnv(checkGames, width, height);
+        SnakeGame[] games = new SnakeGame[checkGames];
+        long[] seeds = new long[checkGames];
+        for (int g = 0; g < checkGames; g++) {
+            seeds[g] = 1000L + g;
+            games[g] = new SnakeGame(width, height, seeds[g]);
+        }
+        byte[] obs = new byte[env.observationSize()];
+        env.resetAll(seeds, obs);
+
+        Random actionRandom = new Random(42);
+        Direction[] directions = Direction.values();
+        int[] actions = new int[checkGames];
+        float[] rewards = new float[checkGames];
+        boolean[] dones = new boolean[checkGames];
+        int mismatches = 0;
+        for (int step = 0; step < checkSteps; step++) {
+            for (int g = 0; g < checkGames; g++) {
+                actions[g] = actionRandom.nextInt(8) < 6 ? ACTION_KEEP : actionRandom.nextInt(4);
+                if (!env.isDone(g) && !games[g].isBoardFull()) {
+                    if (actions[g] != ACTION_KEEP) {
+                        games[g].changeDirection(directions[actions[g]]);
+                    }
+                    games[g].move();
+                }
+            }
+            env.step(actions, rewards, dones, obs);
+            for (int g = 0; g < checkGames; g++) {
+                if (dones[g] && !games[g].isGameOver() && !games[g].isBoardFull()) {
+                    mismatches++;
+                } else if (!dones[g] && (games[g].getScore() != env.getScore(g)
+                        || games[g].getHeadCell() != env.getHeadCell(g)
+                        || games[g].getFoodCell() != env.getFoodCell(g))) {
+                    mismatches++;
+                }
+            }
+        }
+        System.out.println("Eltérések a SnakeGame-hez képest: " + mismatches);
+
+        // 2. Áteresztőképesség: a befejezett játékok azonnal újraindulnak
+        int benchGames = 1 << 14, benchSteps = 2000;
+        SnakeBatchEnv bench = new SnakeBatchEnv(benchGames, width, height);
+        byte[] benchObs = new byte[bench.observationSize()];
+        long[] benchSeeds = new long[benchGames];
+        for (int g = 0; g < benchGames; g++) {
+            benchSeeds[g] = g;
+        }
+        bench.resetAll(benchSeeds, benchObs);
+        int[][] actionSets = new int[16][benchGames];
+        for (int[] set : actionSets) {
+            for (int g = 0; g < benchGames; g++) {
+                set[g] = actionRandom.nextInt(8) < 6 ? ACTION_KEEP : actionRandom.nextInt(4);
+            }
+        }
+        float[] benchRewards = new float[benchGames];
+        boolean[] benchDones = new boolean[benchGames];
+        long start = System.nanoTime();
+        long nextSeed = benchGames;
+        for (int step = 0; step < benchSteps; step++) {
+            bench.step(actionSets[step & 15], benchRewards, benchDones, benchObs);
+            for (int g = 0; g < benchGames; g++) {
+                if (benchDones[g]) {
+                    bench.reset(g, nextSeed++, benchObs);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d játék x %d lépés: %.2f s, %.1f millió lépés/s (%d mag)%n",
+                benchGames, benchSteps, seconds, benchGames * (double) benchSteps / seconds / 1e6,
+                Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -1,54 +1,117 @@
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.Arrays;
 
-// Reprezentál egy 2D koordinátát.
-class Point {
-    int x, y;
+// Reprezentálja a kígyót, a fejét az első elem a listában.
+class Snake {
+    private final IntDeque body; // GridCoords szerint pakolt pontok
 
-    Point(int x, int y) {
-        this.x = x;
-        this.y = y;
+    Snake(int headPosition) {
+        this.body = new IntDeque();
+        this.body.addFirst(headPosition); // A kígyó fejjel indul
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Point point = (Point) o;
-        return x == point.x && y == point.y;
+    public int getHead() {
+        return body.peekFirst();
     }
 
-    @Override
-    public int hashCode() {
-        return Objects.hash(x, y);
+    IntDeque getBody() {
+        return body;
     }
 }
 
-// Reprezentálja a kígyót, a fejét az első elem a listában.
-class Snake {
-    private List<Point> body;
+// Reprezentálja az élelmiszert.
+class Food {
+    private final int position; // GridCoords szerint pakolva
 
-    Snake(Point headPosition) {
-        this.body = new ArrayList<>();
-        this.body.add(headPosition); // A kígyó fejjel indul
+    Food(int position) {
+        this.position = position;
     }
 
-    public Point getHead() {
-        return body.get(0);
+    public int getPosition() {
+        return position;
     }
 }
 
-// Reprezentálja az élelmiszert.
-class Food {
-    private Point position;
+/**
+ * Típusos foglaltsági rács: cellánként egy bájt mondja meg, mi van ott.
+ * Az ütközés vizsgálata így egyetlen tömbolvasás, akárhány étel és akadály van a táblán,
+ * és nincs hashelés, dobozolás vagy objektum-összehasonlítás.
+ */
+class CollisionGrid {
+    static final byte EMPTY = 0;
+    static final byte FOOD = 1;
+    static final byte BODY = 2;        // A saját kígyó teste
+    static final byte WALL = 3;
+    static final byte OTHER_SNAKE = 4;
 
-    Food(Point position) {
-        this.position = position;
+    private final int width;
+    private final int height;
+    private final byte[] cells; // Sorfolytonos: y * width + x
+
+    CollisionGrid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("A rács méretei pozitívak kell legyenek.");
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = new byte[Math.multiplyExact(width, height)];
     }
 
-    public Point getPosition() {
-        return position;
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Megadja a cella típusát. A táblán kívüli koordináta falnak számít.
+     */
+    byte get(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return WALL;
+        }
+        return cells[y * width + x];
+    }
+
+    void set(int x, int y, byte type) {
+        cells[y * width + x] = type;
+    }
+
+    void clear() {
+        Arrays.fill(cells, EMPTY);
+    }
+
+    // A tábla szélét fallal keretezi.
+    void addBorderWalls() {
+        for (int x = 0; x < width; x++) {
+            cells[x] = WALL;
+            cells[(height - 1) * width + x] = WALL;
+        }
+        for (int y = 0; y < height; y++) {
+            cells[y * width] = WALL;
+            cells[y * width + width - 1] = WALL;
+        }
+    }
+
+    void placeFood(Food food) {
+        set(GridCoords.x(food.getPosition()), GridCoords.y(food.getPosition()), FOOD);
+    }
+
+    /**
+     * Beírja a kígyó testét a rácsba. A saját kígyó (BODY) fejének cellája üresen marad, hogy
+     * a fej a saját magával való ütközés nélkül legyen vizsgálható; a többi kígyó (OTHER_SNAKE)
+     * feje is bekerül, így a fejjel fejnek ütközés is látszik.
+     *
+     * @param snake A kígyó.
+     * @param type BODY a saját kígyóhoz, OTHER_SNAKE a többihez.
+     */
+    void placeSnake(Snake snake, byte type) {
+        IntDeque body = snake.getBody();
+        for (int i = type == BODY ? 1 : 0; i < body.size(); i++) {
+            int p = body.get(i);
+            set(GridCoords.x(p), GridCoords.y(p), type);
+        }
     }
 }
 
@@ -63,6 +126,29 @@ public class CollisionDetector {
      * @return true, ha ütközés történt, egyébként false.
      */
     public static boolean checkSnakeFoodCollision(Snake snake, Food food) {
-        return snake.getHead().equals(food.getPosition());
+        return snake.getHead() == food.getPosition();
+    }
+
+    /**
+     * Megadja, mibe ütközött a kígyó feje (CollisionGrid.EMPTY, FOOD, BODY, WALL vagy OTHER_SNAKE).
+     *
+     * @param snake A kígyó objektum.
+     * @param grid Az aktuális foglaltsági rács.
+     * @return A fej cellájának típusa.
+     */
+    public static byte checkHeadCollision(Snake snake, CollisionGrid grid) {
+        int head = snake.getHead();
+        return grid.get(GridCoords.x(head), GridCoords.y(head));
+    }
+
+    /**
+     * Ellenőrzi, hogy a kígyó feje a rács bármelyik élelmiszerére lépett-e.
+     *
+     * @param snake A kígyó objektum.
+     * @param grid Az aktuális foglaltsági rács.
+     * @return true, ha a fej élelmiszeren áll.
+     */
+    public static boolean checkSnakeFoodCollision(Snake snake, CollisionGrid grid) {
+        return checkHeadCollision(snake, grid) == CollisionGrid.FOOD;
     }
 }
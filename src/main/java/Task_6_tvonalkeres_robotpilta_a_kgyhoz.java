@@ -0,0 +1,262 @@
+import java.util.Arrays;
+
+/**
+ * Beépített robotpilóta a SnakeGame-hez.
+ * Szélességi kereséssel (BFS) megkeresi a legrövidebb utat az ételig, és csak akkor indul el rajta,
+ * ha a kígyó az étel elfogyasztása után is eléri a saját farkát. Egy így ellenőrzött út az étel
+ * elfogyasztásáig biztonságos marad, ezért a pilóta addig újratervezés nélkül követi. Ha nincs ilyen
+ * biztonságos út, a farkát követi (a farokhoz legtávolabbi, de onnan elérhető szomszédra lép),
+ * végső esetben bármelyik szabad szomszédra.
+ *
+ * Minden keresési állapot (frontier, szülő, távolság, látogatási és foglaltsági epoch-bélyegek,
+ * virtuális test) előre lefoglalt int tömbökben van, amelyeket minden lépés újrahasznál,
+ * így a tervezés nem hoz létre szemetet.
+ */
+public class SnakeAutopilot {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int width;
+    private final int height;
+    private final int cellCount;
+    private final int[] neighbors;   // cella * 4 + Direction ordinal -> szomszéd cella (körbefordulással)
+
+    private final int[] queue;       // BFS frontier
+    private final int[] parent;      // Cella -> melyik cellából értük el
+    private final int[] dist;        // Cella -> távolság a keresés kezdőpontjától
+    private final int[] visited;     // Látogatási epoch-bélyegek
+    private int visitEpoch;
+
+    private final int[] blocked;     // Foglaltsági epoch-bélyegek (a kígyó virtuális teste)
+    private int blockEpoch;
+    private final int[] virtualBody; // A kígyó teste körkörös pufferben a szimulációhoz
+    private int virtualTail;
+    private int virtualLength;
+    private final int[] path;        // A megtalált út a fejtől az ételig
+    private int pathStart;           // A fej cellája a tervezéskor
+    private int pathLength;
+    private int pathPos;             // A következő lépés indexe a path tömbben
+    private int pathFood = -1;       // Az étel, amelyhez az út készült
+
+    /**
+     * Létrehoz egy robotpilótát a megadott méretű táblához.
+     *
+     * @param width A tábla szélessége.
+     * @param height A tábla magassága.
+     */
+    public SnakeAutopilot(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("A tábla méreteinek pozitívnak kell lenniük.");
+        }
+        this.width = width;
+        this.height = height;
+        this.cellCount = width * height;
+        this.neighbors = new int[cellCount * 4];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int x = cell % width;
+            int y = cell / width;
+            for (Direction d : DIRECTIONS) {
+                int nx = (x + d.dx + width) % width;
+                int ny = (y + d.dy + height) % height;
+                neighbors[cell * 4 + d.ordinal()] = ny * width + nx;
+            }
+        }
+        this.queue = new int[cellCount];
+        this.parent = new int[cellCount];
+        this.dist = new int[cellCount];
+        this.visited = new int[cellCount];
+        this.blocked = new int[cellCount];
+        this.virtualBody = new int[cellCount];
+        this.path = new int[cellCount];
+    }
+
+    /**
+     * Megtervezi a következő lépést, és a SnakeGame.changeDirection() szabályain keresztül beállítja.
+     *
+     * @param game A vezérelt játék.
+     * @return A választott irány.
+     */
+    public Direction steer(SnakeGame game) {
+        Direction direction = plan(game);
+        game.changeDirection(direction);
+        return direction;
+    }
+
+    /**
+     * Megtervezi a következő lépés irányát a játék módosítása nélkül.
+     *
+     * @param game A játék, amelynek táblamérete megegyezik a robotpilótáéval.
+     * @return A javasolt irány; ha nincs szabad szomszéd, az aktuális irány.
+     */
+    public Direction plan(SnakeGame game) {
+        if (game.getBoardWidth() != width || game.getBoardHeight() != height) {
+            throw new IllegalArgumentException("A játék táblamérete eltér a robotpilótáétól.");
+        }
+        int head = game.getHeadCell();
+        int food = game.getFoodCell();
+
+        // 0. A korábban ellenőrzött út folytatása, ha a kígyó azóta is azt követte
+        if (pathPos < pathLength && food == pathFood
+                && head == (pathPos == 0 ? pathStart : path[pathPos - 1])) {
+            return directionTo(head, path[pathPos++]);
+        }
+        pathLength = 0;
+
+        // 1. Legrövidebb út az ételig, ha utána is elérhető marad a farok
+        loadBody(game);
+        if (food != FreeCellIndex.BOARD_FULL && search(head, food, virtualBody[virtualTail])) {
+            int steps = dist[food];
+            for (int cell = food, i = steps - 1; i >= 0; cell = parent[cell], i--) {
+                path[i] = cell;
+            }
+            if (isSafePath(steps, food)) {
+                pathStart = head;
+                pathLength = steps;
+                pathPos = 1;
+                pathFood = food;
+                return directionTo(head, path[0]);
+            }
+            loadBody(game); // A szimuláció elmozdította a virtuális testet
+        }
+
+        // 2. Farokkövetés: a farokból elérhető szomszédok közül a legtávolabbi
+        int tail = game.getTailCell();
+        search(tail, -1, -1);
+        int best = -1;
+        int bestDist = -1;
+        for (int k = 0; k < 4; k++) {
+            int next = neighbors[head * 4 + k];
+            if (visited[next] == visitEpoch && isEnterable(next, tail, food) && dist[next] > bestDist) {
+                best = k;
+                bestDist = dist[next];
+            }
+        }
+        if (best >= 0) {
+            return DIRECTIONS[best];
+        }
+
+        // 3. Bármelyik szabad szomszéd
+        for (int k = 0; k < 4; k++) {
+            if (isEnterable(neighbors[head * 4 + k], tail, food)) {
+                return DIRECTIONS[k];
+            }
+        }
+        return game.getCurrentDirection();
+    }
+
+    // A fej akkor léphet a cellára, ha az üres, vagy a farok, amely ebben a lépésben felszabadul.
+    private boolean isEnterable(int cell, int tail, int food) {
+        return blocked[cell] != blockEpoch || (cell == tail && cell != food);
+    }
+
+    // A kígyó testét betölti a virtuális pufferbe, és új foglaltsági epochot kezd.
+    private void loadBody(SnakeGame game) {
+        blockEpoch = nextEpoch(blocked, blockEpoch);
+        virtualTail = 0;
+        virtualLength = game.getLength();
+        for (int i = 0; i < virtualLength; i++) {
+            int cell = game.getSegment(i);
+            virtualBody[i] = cell;
+            blocked[cell] = blockEpoch;
+        }
+    }
+
+    // Végigléptetjük a virtuális kígyót az úton, majd megnézzük, eléri-e a fej a farkát.
+    private boolean isSafePath(int steps, int food) {
+        for (int i = 0; i < steps; i++) {
+            int cell = path[i];
+            if (cell != food) {
+                blocked[virtualBody[virtualTail]] = 0;
+                virtualTail = virtualTail + 1 == cellCount ? 0 : virtualTail + 1;
+                virtualLength--;
+            }
+            int index = virtualTail + virtualLength;
+            virtualBody[index >= cellCount ? index - cellCount : index] = cell;
+            virtualLength++;
+            blocked[cell] = blockEpoch;
+        }
+        if (virtualLength == cellCount) {
+            return true; // A kígyó kitölti a táblát
+        }
+        return search(food, virtualBody[virtualTail], -1);
+    }
+
+    /**
+     * Szélességi keresés a start cellából a foglalt cellák kikerülésével.
+     * A cél és a 'passable' cella foglaltan is beléphető. target = -1 esetén a teljes elérhető
+     * területet bejárja.
+     *
+     * @return true, ha a célt elérte.
+     */
+    private boolean search(int start, int target, int passable) {
+        int epoch = visitEpoch = nextEpoch(visited, visitEpoch);
+        visited[start] = epoch;
+        dist[start] = 0;
+        queue[0] = start;
+        int read = 0;
+        int write = 1;
+        while (read < write) {
+            int cell = queue[read++];
+            if (cell == target) {
+                return true;
+            }
+            int base = cell * 4;
+            for (int k = 0; k < 4; k++) {
+                int next = neighbors[base + k];
+                if (visited[next] == epoch
+                        || (blocked[next] == blockEpoch && next != target && next != passable)) {
+                    continue;
+                }
+                visited[next] = epoch;
+                parent[next] = cell;
+                dist[next] = dist[cell] + 1;
+                queue[write++] = next;
+            }
+        }
+        return false;
+    }
+
+    private Direction directionTo(int from, int to) {
+        for (int k = 0; k < 4; k++) {
+            if (neighbors[from * 4 + k] == to) {
+                return DIRECTIONS[k];
+            }
+        }
+        throw new IllegalStateException("A cellák nem szomszédosak.");
+    }
+
+    // Következő epoch-érték; túlcsorduláskor a bélyegtömb törlődik.
+    private static int nextEpoch(int[] stamps, int epoch) {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            return 1;
+        }
+        return epoch + 1;
+    }
+
+    // Demo: a robotpilóta végigjátszik egy kis táblát, majd tempót mér egy nagyon.
+    public static void main(String[] args) {
+        SnakeGame game = new SnakeGame(20, 20, 7L);
+        SnakeAutopilot pilot = new SnakeAutopilot(20, 20);
+        int ticks = 0;
+        while (!game.isGameOver() && !game.isBoardFull() && ticks < 200_000) {
+            pilot.steer(game);
+            game.move();
+            ticks++;
+        }
+        System.out.println("20x20: " + ticks + " lépés, pontszám: " + game.getScore()
+                + ", hossz: " + game.getLength() + (game.isGameOver() ? " (ütközés)" : ""));
+
+        SnakeGame big = new SnakeGame(512, 512, 7L);
+        SnakeAutopilot bigPilot = new SnakeAutopilot(512, 512);
+        int bigTicks = 20_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < bigTicks && !big.isGameOver(); i++) {
+            bigPilot.steer(big);
+            big.move();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("512x512: %d lépés %.2f s alatt (%.0f lépés/s), pontszám: %d%n",
+                bigTicks, seconds, bigTicks / seconds, big.getScore());
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 public class GameBoard<T> {
     private final int rows;
     private final int cols;
@@ -80,10 +82,8 @@ public class GameBoard<T> {
      * Törli a tábla összes cellájának tartalmát (null értékre állítja).
      */
     public void clear() {
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                board[r][c] = null;
-            }
+        for (T[] row : board) {
+            Arrays.fill(row, null);
         }
     }
 
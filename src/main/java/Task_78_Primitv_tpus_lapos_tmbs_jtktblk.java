@@ -0,0 +1,449 @@
+import java.util.Arrays;
+
+/**
+ * Primitív típusú, lapos tömbös játéktáblák közös felülete.
+ *
+ * A GameBoard&lt;T&gt; Object[][] tárolójával szemben a cellák egyetlen sorfolytonos tömbben
+ * vannak (index = sor * oszlopszám + oszlop), dobozolás és soronkénti mutató nélkül.
+ * Az ellenőrzött get/set mellett minden tábla ad ellenőrizetlen, index alapú elérést a megbízható
+ * belső ciklusokhoz, valamint tömeges fill/copy műveleteket.
+ */
+public interface PrimitiveGameBoard {
+
+    int getRows();
+
+    int getCols();
+
+    /** A cellák száma (sorok * oszlopok). */
+    default int cellCount() {
+        return getRows() * getCols();
+    }
+
+    /** A (sor, oszlop) cella sorfolytonos indexe, ellenőrzés nélkül. */
+    default int index(int row, int col) {
+        return row * getCols() + col;
+    }
+
+    /**
+     * A cella értéke int-ként (a bites táblán 0 vagy 1), típustól független kódhoz.
+     * @throws IndexOutOfBoundsException Ha a koordináták kívül esnek a táblán.
+     */
+    int getInt(int row, int col);
+
+    /**
+     * Beállítja a cella értékét int-ből (a bájtos tábla levágja, a bites tábla a nem nullát 1-nek veszi).
+     * @throws IndexOutOfBoundsException Ha a koordináták kívül esnek a táblán.
+     */
+    void setInt(int row, int col, int value);
+
+    /** Minden cellát 0-ra állít. */
+    void clear();
+
+    /**
+     * Demo: 10^8 cellás táblák memóriaigénye és tömeges bejárási sebessége.
+     */
+    static void main(String[] args) {
+        int rows = 10_000;
+        int cols = 10_000;
+
+        BitGameBoard bits = new BitGameBoard(rows, cols);
+        long start = System.nanoTime();
+        for (int i = 0, n = bits.cellCount(); i < n; i += 7) {
+            bits.setUnchecked(i);
+        }
+        long setNanos = System.nanoTime() - start;
+        System.out.printf("BitGameBoard %dx%d: %d MB, minden 7. bit beállítva %.1f ms alatt, összesen %d%n",
+                rows, cols, bits.words().length * 8L >> 20, setNanos / 1e6, bits.cardinality());
+
+        ByteGameBoard bytes = new ByteGameBoard(rows, cols);
+        start = System.nanoTime();
+        bytes.fill((byte) 1);
+        long fillNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        long sum = 0;
+        for (int i = 0, n = bytes.cellCount(); i < n; i++) {
+            sum += bytes.getUnchecked(i);
+        }
+        long scanNanos = System.nanoTime() - start;
+        System.out.printf("ByteGameBoard %dx%d: %d MB, fill %.1f ms, bejárás %.1f ms (%.2f GB/s), összeg %d%n",
+                rows, cols, (long) bytes.cellCount() >> 20, fillNanos / 1e6, scanNanos / 1e6,
+                bytes.cellCount() / (double) scanNanos, sum);
+
+        IntGameBoard ints = new IntGameBoard(3, 4);
+        ints.set(1, 2, 42);
+        ints.setInt(2, 3, 7);
+        System.out.print(ints);
+        try {
+            ints.get(3, 0);
+        } catch (IndexOutOfBoundsException e) {
+            System.out.println("Várt hiba: " + e.getMessage());
+        }
+    }
+}
+
+// Közös, ritkán futó ellenőrző segédfüggvények. A hibaüzenet összeállítása külön metódusban van,
+// így a get/set forró útja kicsi marad és beágyazható.
+final class BoardChecks {
+    private BoardChecks() {
+    }
+
+    static int checkedIndex(int rows, int cols, int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw outOfBounds(row, col);
+        }
+        return row * cols + col;
+    }
+
+    static int checkedCellCount(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("A sorok és oszlopok számának pozitívnak kell lennie.");
+        }
+        return Math.multiplyExact(rows, cols);
+    }
+
+    static IndexOutOfBoundsException outOfBounds(int row, int col) {
+        return new IndexOutOfBoundsException("A (" + row + ", " + col + ") koordináták kívül esnek a táblán.");
+    }
+
+    static void checkSameSize(PrimitiveGameBoard a, PrimitiveGameBoard b) {
+        if (a.getRows() != b.getRows() || a.getCols() != b.getCols()) {
+            throw new IllegalArgumentException("A táblák méretének egyeznie kell.");
+        }
+    }
+
+    static String toString(PrimitiveGameBoard board) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                int v = board.getInt(r, c);
+                sb.append(v == 0 ? "." : Integer.toString(v));
+                if (c < board.getCols() - 1) {
+                    sb.append(" "); // Szóköz a cellák között
+                }
+            }
+            sb.append("\n"); // Új sor minden sor után
+        }
+        return sb.toString();
+    }
+}
+
+/**
+ * Cellánként egy bájtot tároló tábla (pl. cellaállapotok, szomszédos bombák száma).
+ */
+final class ByteGameBoard implements PrimitiveGameBoard {
+    private final int rows;
+    private final int cols;
+    private final byte[] cells;
+
+    ByteGameBoard(int rows, int cols) {
+        this.cells = new byte[BoardChecks.checkedCellCount(rows, cols)];
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    byte get(int row, int col) {
+        return cells[BoardChecks.checkedIndex(rows, cols, row, col)];
+    }
+
+    void set(int row, int col, byte value) {
+        cells[BoardChecks.checkedIndex(rows, cols, row, col)] = value;
+    }
+
+    // Ellenőrizetlen elérés megbízható belső ciklusokhoz (index = sor * oszlopszám + oszlop).
+    byte getUnchecked(int index) {
+        return cells[index];
+    }
+
+    void setUnchecked(int index, byte value) {
+        cells[index] = value;
+    }
+
+    @Override
+    public int getInt(int row, int col) {
+        return get(row, col);
+    }
+
+    @Override
+    public void setInt(int row, int col, int value) {
+        set(row, col, (byte) value);
+    }
+
+    void fill(byte value) {
+        Arrays.fill(cells, value);
+    }
+
+    @Override
+    public void clear() {
+        fill((byte) 0);
+    }
+
+    void copyFrom(ByteGameBoard other) {
+        BoardChecks.checkSameSize(this, other);
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+    }
+
+    ByteGameBoard copy() {
+        ByteGameBoard copy = new ByteGameBoard(rows, cols);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /** A mögöttes tömb tömeges műveletekhez; a módosítások közvetlenül a táblán látszanak. */
+    byte[] cells() {
+        return cells;
+    }
+
+    @Override
+    public String toString() {
+        return BoardChecks.toString(this);
+    }
+}
+
+/**
+ * Cellánként egy int-et tároló tábla (pl. azonosítók, távolságok).
+ */
+final class IntGameBoard implements PrimitiveGameBoard {
+    private final int rows;
+    private final int cols;
+    private final int[] cells;
+
+    IntGameBoard(int rows, int cols) {
+        this.cells = new int[BoardChecks.checkedCellCount(rows, cols)];
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    int get(int row, int col) {
+        return cells[BoardChecks.checkedIndex(rows, cols, row, col)];
+    }
+
+    void set(int row, int col, int value) {
+        cells[BoardChecks.checkedIndex(rows, cols, row, col)] = value;
+    }
+
+    int getUnchecked(int index) {
+        return cells[index];
+    }
+
+    void setUnchecked(int index, int value) {
+        cells[index] = value;
+    }
+
+    @Override
+    public int getInt(int row, int col) {
+        return get(row, col);
+    }
+
+    @Override
+    public void setInt(int row, int col, int value) {
+        set(row, col, value);
+    }
+
+    void fill(int value) {
+        Arrays.fill(cells, value);
+    }
+
+    @Override
+    public void clear() {
+        fill(0);
+    }
+
+    void copyFrom(IntGameBoard other) {
+        BoardChecks.checkSameSize(this, other);
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+    }
+
+    IntGameBoard copy() {
+        IntGameBoard copy = new IntGameBoard(rows, cols);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    int[] cells() {
+        return cells;
+    }
+
+    @Override
+    public String toString() {
+        return BoardChecks.toString(this);
+    }
+}
+
+/**
+ * Cellánként egy bitet tároló tábla (pl. bombák, felfedett vagy megjelölt cellák).
+ * 10^8 cella kb. 12 MB. A bitek 64-esével long szavakban vannak; az utolsó szó
+ * táblán túli bitjei mindig 0-k, így a szavankénti műveletek (bitCount) pontosak maradnak.
+ */
+final class BitGameBoard implements PrimitiveGameBoard {
+    private final int rows;
+    private final int cols;
+    private final int cellCount;
+    private final long[] words;
+
+    BitGameBoard(int rows, int cols) {
+        this.cellCount = BoardChecks.checkedCellCount(rows, cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.words = new long[(cellCount + 63) >>> 6];
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int cellCount() {
+        return cellCount;
+    }
+
+    boolean get(int row, int col) {
+        return getUnchecked(BoardChecks.checkedIndex(rows, cols, row, col));
+    }
+
+    void set(int row, int col, boolean value) {
+        int index = BoardChecks.checkedIndex(rows, cols, row, col);
+        if (value) {
+            setUnchecked(index);
+        } else {
+            clearUnchecked(index);
+        }
+    }
+
+    boolean getUnchecked(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    void setUnchecked(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    void clearUnchecked(int index) {
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    /** Átbillenti a bitet, és visszaadja az új értékét. */
+    boolean flipUnchecked(int index) {
+        long bit = 1L << index;
+        return ((words[index >>> 6] ^= bit) & bit) != 0;
+    }
+
+    @Override
+    public int getInt(int row, int col) {
+        return get(row, col) ? 1 : 0;
+    }
+
+    @Override
+    public void setInt(int row, int col, int value) {
+        set(row, col, value != 0);
+    }
+
+    void fill(boolean value) {
+        if (!value) {
+            Arrays.fill(words, 0L);
+            return;
+        }
+        Arrays.fill(words, -1L);
+        int tailBits = cellCount & 63;
+        if (tailBits != 0) {
+            words[words.length - 1] = (1L << tailBits) - 1; // A táblán túli bitek 0-k maradnak
+        }
+    }
+
+    @Override
+    public void clear() {
+        fill(false);
+    }
+
+    /** A beállított bitek száma. */
+    int cardinality() {
+        int count = 0;
+        for (long w : words) {
+            count += Long.bitCount(w);
+        }
+        return count;
+    }
+
+    /** A beállított bitek száma a [from, to) indextartományban (ellenőrzés nélkül). */
+    int cardinality(int from, int to) {
+        if (from >= to) {
+            return 0;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to; // A to - 1 indexig bezárólag
+        if (first == last) {
+            return Long.bitCount(words[first] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(words[first] & firstMask);
+        for (int w = first + 1; w < last; w++) {
+            count += Long.bitCount(words[w]);
+        }
+        return count + Long.bitCount(words[last] & lastMask);
+    }
+
+    /** Az első beállított bit indexe a from indextől kezdve, vagy -1. */
+    int nextSetBit(int from) {
+        if (from >= cellCount) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    void copyFrom(BitGameBoard other) {
+        BoardChecks.checkSameSize(this, other);
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    BitGameBoard copy() {
+        BitGameBoard copy = new BitGameBoard(rows, cols);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /** A mögöttes szavak szavankénti (64 cellás) tömeges műveletekhez. */
+    long[] words() {
+        return words;
+    }
+
+    @Override
+    public String toString() {
+        return BoardChecks.toString(this);
+    }
+}
@@ -1,6 +1,4 @@
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Random;
 
 public class BombPlacementLogic {
@@ -18,29 +16,193 @@ public class BombPlacementLogic {
             throw new IllegalArgumentException("A sorok és oszlopok számának pozitívnak kell lennie.");
         }
 
+        // Érvénytelen bombaszám kezelése: 0 és a teljes cellaszám között legyen.
+        numBombs = Math.max(0, Math.min(numBombs, rows * cols));
+
+        BitGameBoard bombs = new BitGameBoard(rows, cols);
+        placeBombs(bombs, numBombs, new Random().nextLong(), -1, -1, 0);
+
         boolean[][] grid = new boolean[rows][cols];
-        int totalCells = rows * cols;
+        for (int index = bombs.nextSetBit(0); index >= 0; index = bombs.nextSetBit(index + 1)) {
+            grid[index / cols][index % cols] = true;
+        }
+        return grid;
+    }
 
-        // Érvénytelen bombaszám kezelése: 0 és a teljes cellaszám között legyen.
-        numBombs = Math.max(0, Math.min(numBombs, totalCells));
+    /**
+     * Seedelt, ismételhető bombaelhelyezés közvetlenül egy bites táblába, Floyd mintavételezésével.
+     * A tábla bitjein túl csak O(1) extra memóriát használ (nincs indexlista és keverés), így
+     * 10^8 cellás táblán is gyors. Azonos seed és paraméterek mellett mindig ugyanaz az eredmény.
+     *
+     * A (safeRow, safeCol) körüli, safeRadius sugarú négyzet (az első kattintás környezete) kimarad:
+     * a mintavétel a biztonságos zónán kívüli cellák sorszámain történik, amelyeket egy
+     * O(1)-es leképezés alakít cellaindexszé.
+     *
+     * @param bombs A cél tábla; a meglévő bombák törlődnek.
+     * @param numBombs Az elhelyezendő bombák száma (a szabad cellák számára korlátozva).
+     * @param seed A véletlenszám-generátor seedje.
+     * @param safeRow Az első kattintás sora, vagy -1, ha nincs biztonságos zóna.
+     * @param safeCol Az első kattintás oszlopa.
+     * @param safeRadius A biztonságos zóna sugara (0: csak maga a cella, 1: a 3x3-as környezet).
+     * @return A ténylegesen elhelyezett bombák száma.
+     */
+    static int placeBombs(BitGameBoard bombs, int numBombs, long seed, int safeRow, int safeCol, int safeRadius) {
+        SafeZone zone = new SafeZone(bombs.getRows(), bombs.getCols(), safeRow, safeCol, safeRadius);
+        int candidates = zone.candidateCount();
+        int count = Math.max(0, Math.min(numBombs, candidates));
+        bombs.clear();
 
-        // Létrehozzuk az összes lehetséges cella 1D indexét.
-        List<Integer> cellIndices = new ArrayList<>(totalCells);
-        for (int i = 0; i < totalCells; i++) {
-            cellIndices.add(i);
+        // Floyd: j = m-n .. m-1 esetén egy véletlen t <= j; ha t már ki van választva, akkor j-t vesszük.
+        // A kiválasztottság a cél tábla bitje, mert a leképezés kölcsönösen egyértelmű.
+        Random random = new Random(seed);
+        for (int j = candidates - count; j < candidates; j++) {
+            int cell = zone.cellOf(random.nextInt(j + 1));
+            if (bombs.getUnchecked(cell)) {
+                cell = zone.cellOf(j);
+            }
+            bombs.setUnchecked(cell);
         }
+        return count;
+    }
 
-        // Véletlenszerűen megkeverjük az indexeket.
-        Collections.shuffle(cellIndices, new Random());
+    /**
+     * Seedelt bombaelhelyezés új bites táblába, biztonságos zóna nélkül.
+     */
+    static BitGameBoard placeBombs(int rows, int cols, int numBombs, long seed) {
+        BitGameBoard bombs = new BitGameBoard(rows, cols);
+        placeBombs(bombs, numBombs, seed, -1, -1, 0);
+        return bombs;
+    }
+
+    // A biztonságos zónán kívüli cellák sorfolytonos számozása: k-adik jelölt -> cellaindex.
+    private static final class SafeZone {
+        private final int cols;
+        private final int top;       // A zóna első sora
+        private final int height;    // A zóna sorainak száma (0, ha nincs zóna)
+        private final int left;      // A zóna első oszlopa
+        private final int width;     // A zóna oszlopainak száma
+        private final int before;    // A zóna előtti sorok cellái
+        private final int perRow;    // Jelölt cellák egy zónát metsző sorban
+        private final int candidates;
 
-        // Kivesszük az első 'numBombs' indexet, és bombákat helyezünk el ezeken a pozíciókon.
-        for (int i = 0; i < numBombs; i++) {
-            int index = cellIndices.get(i);
-            int r = index / cols; // Sor index
-            int c = index % cols; // Oszlop index
-            grid[r][c] = true;
+        SafeZone(int rows, int cols, int safeRow, int safeCol, int radius) {
+            this.cols = cols;
+            if (safeRow < 0 || safeCol < 0 || safeRow >= rows || safeCol >= cols || radius < 0) {
+                top = 0;
+                height = 0;
+                left = 0;
+                width = 0;
+            } else {
+                top = Math.max(0, safeRow - radius);
+                height = Math.min(rows - 1, safeRow + radius) - top + 1;
+                left = Math.max(0, safeCol - radius);
+                width = Math.min(cols - 1, safeCol + radius) - left + 1;
+            }
+            before = top * cols;
+            perRow = cols - width;
+            candidates = rows * cols - height * width;
         }
 
-        return grid;
+        int candidateCount() {
+            return candidates;
+        }
+
+        int cellOf(int k) {
+            if (k < before) {
+                return k;
+            }
+            k -= before;
+            int zoneCells = height * perRow;
+            if (k < zoneCells) {
+                int r = top + k / perRow;
+                int c = k % perRow;
+                if (c >= left) {
+                    c += width; // Átugorjuk a zóna oszlopait
+                }
+                return r * cols + c;
+            }
+            return (top + height) * cols + (k - zoneCells);
+        }
+    }
+
+    /**
+     * Demo: néhány millió bomba egy 10^8 cellás táblán, az ismételhetőség és a biztonságos zóna ellenőrzésével.
+     */
+    public static void main(String[] args) {
+        int rows = 10_000;
+        int cols = 10_000;
+        int numBombs = 2_000_000;
+        long seed = 42L;
+
+        long start = System.nanoTime();
+        BitGameBoard first = new BitGameBoard(rows, cols);
+        int placed = placeBombs(first, numBombs, seed, 5_000, 5_000, 1);
+        long nanos = System.nanoTime() - start;
+
+        BitGameBoard second = new BitGameBoard(rows, cols);
+        placeBombs(second, numBombs, seed, 5_000, 5_000, 1);
+        boolean reproducible = Arrays.equals(first.words(), second.words());
+
+        boolean safeZoneClear = true;
+        for (int r = 4_999; r <= 5_001; r++) {
+            for (int c = 4_999; c <= 5_001; c++) {
+                safeZoneClear &= !first.get(r, c);
+            }
+        }
+        System.out.printf("%d bomba %dx%d táblán %.1f ms alatt, bitek: %d, tábla: %d MB%n",
+                placed, rows, cols, nanos / 1e6, first.cardinality(), first.words().length * 8L >> 20);
+        System.out.println("Ismételhető: " + reproducible + ", a 3x3-as biztonságos zóna üres: " + safeZoneClear);
+
+        boolean[][] small = placeBombs(5, 8, 10);
+        int smallCount = 0;
+        for (boolean[] row : small) {
+            for (boolean b : row) {
+                smallCount += b ? 1 : 0;
+            }
+        }
+        System.out.println("A régi API 5x8-as táblája " + smallCount + " bombát tartalmaz.");
+        System.out.println("Véletlen kis táblák rendben: " + smallBoardsValid());
+    }
+
+    // Véletlen kis táblák: ismételhetőség, üres biztonságos zóna, pontos bombaszám, és ha minden
+    // jelöltre jut bomba, akkor a zónán kívül minden cella bomba.
+    private static boolean smallBoardsValid() {
+        Random random = new Random(14);
+        for (int i = 0; i < 20_000; i++) {
+            int rows = 1 + random.nextInt(12);
+            int cols = 1 + random.nextInt(12);
+            boolean hasZone = random.nextInt(4) != 0;
+            int safeRow = hasZone ? random.nextInt(rows) : -1;
+            int safeCol = hasZone ? random.nextInt(cols) : -1;
+            int radius = random.nextInt(3);
+            int numBombs = random.nextInt(rows * cols + 4);
+            long seed = random.nextLong();
+
+            BitGameBoard bombs = new BitGameBoard(rows, cols);
+            int placed = placeBombs(bombs, numBombs, seed, safeRow, safeCol, radius);
+            BitGameBoard again = new BitGameBoard(rows, cols);
+            placeBombs(again, numBombs, seed, safeRow, safeCol, radius);
+            if (!Arrays.equals(bombs.words(), again.words())) {
+                return false;
+            }
+
+            int candidates = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    boolean inZone = hasZone && Math.abs(r - safeRow) <= radius && Math.abs(c - safeCol) <= radius;
+                    if (inZone && bombs.get(r, c)) {
+                        return false;
+                    }
+                    if (!inZone) {
+                        candidates++;
+                    }
+                }
+            }
+            int expected = Math.min(numBombs, candidates);
+            if (placed != expected || bombs.cardinality() != expected) {
+                return false;
+            }
+        }
+        return true;
     }
 }
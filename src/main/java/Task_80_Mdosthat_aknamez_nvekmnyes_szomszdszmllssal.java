@@ -0,0 +1,329 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Módosítható aknamező, amely a szomszédos aknák számát növekményesen tartja karban.
+ *
+ * Akna hozzáadásakor, törlésekor vagy áthelyezésekor csak a 3x3-as környezet számlálói
+ * változnak, így egy szerkesztés a tábla méretétől függetlenül O(1), és nem kell újra lefuttatni
+ * a BombSweeper.calculateNeighborBombs teljes számítását (pl. az első kattintás biztonságossá
+ * tételekor vagy a pályaszerkesztőben).
+ *
+ * Az aknák egy BitGameBoard-ban, a számlálók egy ByteGameBoard-ban vannak. A megváltozott
+ * számlálójú cellákat a mező összegyűjti, hogy a megjelenítés csak azokat frissítse.
+ */
+public class Minefield {
+
+    private final int rows;
+    private final int cols;
+    private final BitGameBoard mines;
+    private final ByteGameBoard counts;
+    private int mineCount;
+
+    // A legutóbbi drainChangedCells() óta megváltozott cellák (ismétlés nélkül)
+    private final BitGameBoard changedMarks;
+    private final IntDeque changedCells = new IntDeque();
+
+    /**
+     * Létrehoz egy üres (akna nélküli) aknamezőt.
+     *
+     * @param rows A sorok száma.
+     * @param cols Az oszlopok száma.
+     * @throws IllegalArgumentException Ha a sorok vagy oszlopok száma nem pozitív.
+     */
+    public Minefield(int rows, int cols) {
+        this.mines = new BitGameBoard(rows, cols);
+        this.counts = new ByteGameBoard(rows, cols);
+        this.changedMarks = new BitGameBoard(rows, cols);
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Felépíti az aknamezőt egy meglévő bombarácsból; a számlálókat egyszer, párhuzamosan számolja.
+     *
+     * @param bombGrid Egy 2D-s boolean tömb, ahol 'true' jelöl egy bombát.
+     * @return Az aknamező.
+     */
+    public static Minefield fromGrid(boolean[][] bombGrid) {
+        Minefield field = new Minefield(bombGrid.length, bombGrid[0].length);
+        int[][] neighborCounts = BombSweeper.calculateNeighborBombsParallel(bombGrid);
+        byte[] countCells = field.counts.cells();
+        for (int r = 0; r < field.rows; r++) {
+            int base = r * field.cols;
+            for (int c = 0; c < field.cols; c++) {
+                countCells[base + c] = (byte) neighborCounts[r][c];
+                if (bombGrid[r][c]) {
+                    field.mines.setUnchecked(base + c);
+                    field.mineCount++;
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Felépíti az aknamezőt egy akna-bittáblából (pl. betöltött mentésből); a számlálókat aknánként növeli.
+     *
+     * @param mineBoard Az aknák; a tábla tartalmát átmásolja.
+     * @return Az aknamező, üres változáslistával.
+     */
+    static Minefield fromMineBoard(BitGameBoard mineBoard) {
+        Minefield field = new Minefield(mineBoard.getRows(), mineBoard.getCols());
+        field.mines.copyFrom(mineBoard);
+        for (int i = mineBoard.nextSetBit(0); i >= 0; i = mineBoard.nextSetBit(i + 1)) {
+            field.mineCount++;
+            field.adjustNeighbors(i / field.cols, i % field.cols, 1);
+        }
+        field.changedCells.clear();
+        field.changedMarks.clear();
+        return field;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    // A mögöttes táblák a megbízható, index alapú belső ciklusokhoz (pl. RevealEngine).
+    BitGameBoard mineBoard() {
+        return mines;
+    }
+
+    ByteGameBoard countBoard() {
+        return counts;
+    }
+
+    public boolean isMine(int row, int col) {
+        return mines.get(row, col);
+    }
+
+    /**
+     * Visszaadja a cella körüli (8 irányú) aknák számát.
+     */
+    public int getNeighborCount(int row, int col) {
+        return counts.get(row, col);
+    }
+
+    /**
+     * Aknát helyez a cellára.
+     *
+     * @return true, ha a cellán eddig nem volt akna.
+     * @throws IndexOutOfBoundsException Ha a koordináták kívül esnek a táblán.
+     */
+    public boolean addMine(int row, int col) {
+        int index = BoardChecks.checkedIndex(rows, cols, row, col);
+        if (mines.getUnchecked(index)) {
+            return false;
+        }
+        mines.setUnchecked(index);
+        mineCount++;
+        adjustNeighbors(row, col, 1);
+        return true;
+    }
+
+    /**
+     * Eltávolítja az aknát a celláról.
+     *
+     * @return true, ha a cellán volt akna.
+     * @throws IndexOutOfBoundsException Ha a koordináták kívül esnek a táblán.
+     */
+    public boolean removeMine(int row, int col) {
+        int index = BoardChecks.checkedIndex(rows, cols, row, col);
+        if (!mines.getUnchecked(index)) {
+            return false;
+        }
+        mines.clearUnchecked(index);
+        mineCount--;
+        adjustNeighbors(row, col, -1);
+        return true;
+    }
+
+    /**
+     * Áthelyez egy aknát egy üres cellára.
+     *
+     * @return true, ha az áthelyezés megtörtént (a forrásban volt akna, a célban nem).
+     */
+    public boolean moveMine(int fromRow, int fromCol, int toRow, int toCol) {
+        if (!isMine(fromRow, fromCol) || isMine(toRow, toCol)) {
+            return false;
+        }
+        removeMine(fromRow, fromCol);
+        addMine(toRow, toCol);
+        return true;
+    }
+
+    /**
+     * Első kattintás biztonsága: ha a cellán akna van, egy véletlen, aknamentes cellára helyezi át.
+     * A választás véletlen próbálkozással történik, ami nem teljesen teli táblán várhatóan O(1).
+     *
+     * @return true, ha áthelyezés történt.
+     * @throws IllegalStateException Ha nincs olyan cella, ahová az akna áthelyezhető.
+     */
+    public boolean relocateMineFrom(int row, int col, Random random) {
+        if (!isMine(row, col)) {
+            return false;
+        }
+        if (mineCount == rows * cols) {
+            throw new IllegalStateException("Nincs szabad cella az akna áthelyezéséhez.");
+        }
+        int clicked = row * cols + col;
+        int target;
+        do {
+            target = random.nextInt(rows * cols);
+        } while (target == clicked || mines.getUnchecked(target));
+        return moveMine(row, col, target / cols, target % cols);
+    }
+
+    /**
+     * Több szerkesztés egyben. Először az eltávolítások, majd a hozzáadások futnak, így egy
+     * cella ugyanabban a kötegben áthelyezésre is használható; minden szerkesztés O(1).
+     *
+     * @param removals Eltávolítandó aknák sorfolytonos indexei (sor * oszlopszám + oszlop).
+     * @param additions Hozzáadandó aknák sorfolytonos indexei.
+     * @return A ténylegesen megváltozott aknák száma.
+     */
+    public int applyBatch(int[] removals, int[] additions) {
+        for (int index : removals) {
+            checkIndex(index);
+        }
+        for (int index : additions) {
+            checkIndex(index);
+        }
+        int changed = 0;
+        for (int index : removals) {
+            if (removeMine(index / cols, index % cols)) {
+                changed++;
+            }
+        }
+        for (int index : additions) {
+            if (addMine(index / cols, index % cols)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Visszaadja és törli a legutóbbi hívás óta megváltozott számlálójú vagy aknájú cellákat.
+     *
+     * @return A cellák sorfolytonos indexei, ismétlés nélkül.
+     */
+    public int[] drainChangedCells() {
+        int[] result = new int[changedCells.size()];
+        for (int i = 0; i < result.length; i++) {
+            int index = changedCells.pollFirst();
+            changedMarks.clearUnchecked(index);
+            result[i] = index;
+        }
+        return result;
+    }
+
+    /**
+     * A BombSweeper.calculateNeighborBombs formátumában adja vissza a számlálókat.
+     */
+    public int[][] toNeighborCounts() {
+        int[][] result = new int[rows][cols];
+        byte[] countCells = counts.cells();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                result[r][c] = countCells[r * cols + c];
+            }
+        }
+        return result;
+    }
+
+    public boolean[][] toBombGrid() {
+        boolean[][] grid = new boolean[rows][cols];
+        for (int i = mines.nextSetBit(0); i >= 0; i = mines.nextSetBit(i + 1)) {
+            grid[i / cols][i % cols] = true;
+        }
+        return grid;
+    }
+
+    // A cella 3x3-as környezetének (önmaga nélkül) számlálóit delta-val módosítja.
+    private void adjustNeighbors(int row, int col, int delta) {
+        byte[] countCells = counts.cells();
+        int r0 = Math.max(0, row - 1);
+        int r1 = Math.min(rows - 1, row + 1);
+        int c0 = Math.max(0, col - 1);
+        int c1 = Math.min(cols - 1, col + 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int index = r * cols + c;
+                if (r != row || c != col) {
+                    countCells[index] += (byte) delta;
+                }
+                markChanged(index);
+            }
+        }
+    }
+
+    private void markChanged(int index) {
+        if (!changedMarks.getUnchecked(index)) {
+            changedMarks.setUnchecked(index);
+            changedCells.addLast(index);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= rows * cols) {
+            throw new IndexOutOfBoundsException("A " + index + " index kívül esik a táblán.");
+        }
+    }
+
+    /**
+     * Demo: egymillió véletlen szerkesztés egy nagy táblán, majd ellenőrzés a teljes újraszámolással.
+     */
+    public static void main(String[] args) {
+        int size = 2000;
+        Random random = new Random(13);
+        boolean[][] grid = new boolean[size][size];
+        for (boolean[] row : grid) {
+            for (int c = 0; c < size; c++) {
+                row[c] = random.nextInt(6) == 0;
+            }
+        }
+        Minefield field = fromGrid(grid);
+
+        int edits = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < edits; i++) {
+            int r = random.nextInt(size);
+            int c = random.nextInt(size);
+            switch (i % 3) {
+                case 0:
+                    field.addMine(r, c);
+                    break;
+                case 1:
+                    field.removeMine(r, c);
+                    break;
+                default:
+                    field.relocateMineFrom(r, c, random);
+                    break;
+            }
+        }
+        long editNanos = System.nanoTime() - start;
+        int[] removals = {0, 1, 2};
+        int[] additions = {size, size + 1, size + 2};
+        field.applyBatch(removals, additions);
+        int changedCells = field.drainChangedCells().length;
+
+        start = System.nanoTime();
+        int[][] expected = BombSweeper.calculateNeighborBombs(field.toBombGrid());
+        long fullNanos = System.nanoTime() - start;
+        boolean same = Arrays.deepEquals(expected, field.toNeighborCounts());
+
+        System.out.printf("%d szerkesztés %dx%d táblán: %.1f ns/szerkesztés; teljes újraszámolás: %.1f ms%n",
+                edits, size, size, (double) editNanos / edits, fullNanos / 1e6);
+        System.out.println("Aknák: " + field.getMineCount() + ", megváltozott cellák: " + changedCells
+                + ", egyezik a teljes újraszámolással: " + same);
+    }
+}
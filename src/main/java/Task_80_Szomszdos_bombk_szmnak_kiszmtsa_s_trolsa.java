@@ -1,3 +1,10 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 class BombSweeper {
 
     /**
@@ -39,4 +46,208 @@ class BombSweeper {
 
         return neighborBombCounts;
     }
+
+    // Ennyi sornál kisebb sávot már nem bontunk tovább.
+    private static final int MIN_STRIPE_ROWS = 64;
+
+    /**
+     * Ugyanazt számolja, mint a calculateNeighborBombs, de szétválasztható 3x3-as dobozösszeggel
+     * és párhuzamosan: minden sorra előbb a vízszintes hármas összegeket számoljuk (a két szélső
+     * oszlop külön, így a belső ciklusban nincs határellenőrzés), majd három egymás alatti sor
+     * összegéből levonjuk a cella saját bombáját. A sorokat vízszintes sávokra bontjuk a fork/join
+     * készleten; minden sáv csak a saját sorait írja.
+     *
+     * @param bombGrid Egy 2D-s boolean tömb, ahol 'true' jelöl egy bombát.
+     * @param pool A számításhoz használt fork/join készlet.
+     * @return A calculateNeighborBombs eredményével azonos 2D-s int tömb.
+     */
+    public static int[][] calculateNeighborBombsParallel(boolean[][] bombGrid, ForkJoinPool pool) {
+        if (bombGrid == null || bombGrid.length == 0 || bombGrid[0].length == 0) {
+            return new int[0][0]; // Üres vagy érvénytelen rács kezelése
+        }
+        int rows = bombGrid.length;
+        int[][] neighborBombCounts = new int[rows][];
+        pool.invoke(new StripeTask(bombGrid, neighborBombCounts, 0, rows));
+        return neighborBombCounts;
+    }
+
+    /**
+     * A calculateNeighborBombsParallel a közös fork/join készleten.
+     */
+    public static int[][] calculateNeighborBombsParallel(boolean[][] bombGrid) {
+        return calculateNeighborBombsParallel(bombGrid, ForkJoinPool.commonPool());
+    }
+
+    // A [fromRow, toRow) sorok számítása; nagy sáv esetén kettéoszlik.
+    private static final class StripeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean[][] bombGrid;
+        private final int[][] counts;
+        private final int fromRow;
+        private final int toRow;
+
+        StripeTask(boolean[][] bombGrid, int[][] counts, int fromRow, int toRow) {
+            this.bombGrid = bombGrid;
+            this.counts = counts;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow > MIN_STRIPE_ROWS
+                    && getSurplusQueuedTaskCount() <= 2) {
+                int mid = (fromRow + toRow) >>> 1;
+                invokeAll(new StripeTask(bombGrid, counts, fromRow, mid),
+                        new StripeTask(bombGrid, counts, mid, toRow));
+                return;
+            }
+            computeStripe(bombGrid, counts, fromRow, toRow);
+        }
+    }
+
+    private static void computeStripe(boolean[][] bombGrid, int[][] counts, int fromRow, int toRow) {
+        int rows = bombGrid.length;
+        int cols = bombGrid[0].length;
+        // Görgetett vízszintes összegek: az előző, az aktuális és a következő sor
+        int[] above = new int[cols];
+        int[] current = new int[cols];
+        int[] below = new int[cols];
+        if (fromRow > 0) {
+            rowSums(bombGrid[fromRow - 1], above, cols);
+        }
+        rowSums(bombGrid[fromRow], current, cols);
+
+        for (int r = fromRow; r < toRow; r++) {
+            boolean hasBelow = r + 1 < rows;
+            if (hasBelow) {
+                rowSums(bombGrid[r + 1], below, cols);
+            } else {
+                Arrays.fill(below, 0);
+            }
+            boolean[] own = bombGrid[r];
+            int[] out = new int[cols];
+            if (r == 0) {
+                for (int c = 0; c < cols; c++) {
+                    out[c] = current[c] + below[c] - (own[c] ? 1 : 0);
+                }
+            } else {
+                for (int c = 0; c < cols; c++) {
+                    out[c] = above[c] + current[c] + below[c] - (own[c] ? 1 : 0);
+                }
+            }
+            counts[r] = out;
+
+            int[] recycled = above;
+            above = current;
+            current = below;
+            below = recycled;
+        }
+    }
+
+    // sums[c] = row[c-1] + row[c] + row[c+1] az első cols oszlopra, a táblán kívüli szomszédok 0-k.
+    private static void rowSums(boolean[] row, int[] sums, int cols) {
+        if (cols == 1) {
+            sums[0] = row[0] ? 1 : 0;
+            return;
+        }
+        int left = 0;
+        int mid = row[0] ? 1 : 0;
+        for (int c = 0; c < cols - 1; c++) {
+            int right = row[c + 1] ? 1 : 0;
+            sums[c] = left + mid + right;
+            left = mid;
+            mid = right;
+        }
+        sums[cols - 1] = left + mid;
+    }
+
+    /**
+     * Mérés: a soros és a párhuzamos számítás ideje táblaméret és szálszám szerint,
+     * az eredmények egyezésének ellenőrzésével.
+     * Használat: java BombSweeper [táblaméretek vesszővel elválasztva]
+     */
+    public static void main(String[] args) {
+        System.out.println("Kis és elfajuló táblák egyeznek: " + smallBoardsMatch());
+
+        String sizeList = args.length > 0 ? args[0] : "500,2000,6000";
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < cores; t *= 2) {
+            threadCounts.add(t);
+        }
+        threadCounts.add(cores);
+
+        for (String sizeText : sizeList.split(",")) {
+            int size = Integer.parseInt(sizeText.trim());
+            boolean[][] grid = new boolean[size][size];
+            Random random = new Random(size);
+            for (boolean[] row : grid) {
+                for (int c = 0; c < size; c++) {
+                    row[c] = random.nextInt(6) == 0; // Kb. 16% bomba
+                }
+            }
+
+            calculateNeighborBombs(grid); // Bemelegítés
+            long start = System.nanoTime();
+            int[][] expected = calculateNeighborBombs(grid);
+            long serialNanos = System.nanoTime() - start;
+            System.out.printf("%dx%d: eredeti %.1f ms%n", size, size, serialNanos / 1e6);
+
+            for (int threads : threadCounts) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    calculateNeighborBombsParallel(grid, pool); // Bemelegítés
+                    start = System.nanoTime();
+                    int[][] actual = calculateNeighborBombsParallel(grid, pool);
+                    long nanos = System.nanoTime() - start;
+                    boolean same = Arrays.deepEquals(expected, actual);
+                    System.out.printf("  dobozösszeg, %d szál: %.1f ms (%.1fx), egyezik: %b%n",
+                            threads, nanos / 1e6, (double) serialNanos / nanos, same);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    // Összeveti a két számítást 1xN, Nx1, 1x1, csupa bomba és véletlen kis táblákon.
+    private static boolean smallBoardsMatch() {
+        List<boolean[][]> boards = new ArrayList<>();
+        boards.add(new boolean[][]{{true}});
+        boards.add(new boolean[][]{{false}});
+        for (int n = 2; n <= 70; n += 17) {
+            boolean[][] allMines = new boolean[n][n];
+            for (boolean[] row : allMines) {
+                Arrays.fill(row, true);
+            }
+            boards.add(allMines);
+        }
+        Random random = new Random(12);
+        for (int i = 0; i < 2000; i++) {
+            // Minden harmadik tábla egysoros, minden harmadik egyoszlopos
+            int rows = i % 3 == 0 ? 1 : 1 + random.nextInt(150);
+            int cols = i % 3 == 1 ? 1 : 1 + random.nextInt(150);
+            boolean[][] grid = new boolean[rows][cols];
+            int density = 1 + random.nextInt(4);
+            for (boolean[] row : grid) {
+                for (int c = 0; c < cols; c++) {
+                    row[c] = random.nextInt(density) == 0;
+                }
+            }
+            boards.add(grid);
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (boolean[][] grid : boards) {
+                if (!Arrays.deepEquals(calculateNeighborBombs(grid), calculateNeighborBombsParallel(grid, pool))) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
@@ -0,0 +1,436 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Végtelen aknakereső világ 64x64-es darabokból (chunk).
+ *
+ * Az aknák helye a (világ seed, x, y) hash-éből számítható, így egy darab bármikor,
+ * lustán újragenerálható, és a darabhatáron átnyúló szomszédszámokhoz sem kell a szomszéd
+ * darabot betölteni: minden darab a saját aknái mellett a körülötte lévő egycellás keretet
+ * (halo) is eltárolja. Darabonként az aknák, a felfedett és a megjelölt cellák soronként
+ * egy-egy long-ban vannak (64 bit = 64 oszlop).
+ *
+ * A memóriában csak a legutóbb használt darabok maradnak (LRU, rögzített kapacitás). A kiszorított
+ * darabot, ha a játékos módosította, a lapozófájlba írjuk (az aknák nem kellenek, azok
+ * újragenerálhatók), és visszatöltéskor onnan állítjuk vissza a felfedett és megjelölt cellákat.
+ * Így a memória a görgetés távolságától függetlenül korlátos; csak a módosított darabok
+ * fájlbeli helyének indexe nő.
+ */
+public class ChunkedMineWorld implements Closeable {
+
+    static final int CHUNK_BITS = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int PAGE_BYTES = 2 * CHUNK_SIZE * Long.BYTES; // Felfedett + megjelölt sorok
+    private static final int MAX_FLOOD_CELLS = 1 << 20; // Védőkorlát egy hívásban felfedett cellákra
+
+    private final long seed;
+    private final long mineThreshold; // 2^24 alapú sűrűségküszöb
+    private final int capacity;
+    private final LinkedHashMap<Long, MineChunk> loaded;
+    private final Map<Long, Integer> pageSlots = new HashMap<>(); // Darab kulcs -> hely a lapozófájlban
+    private final FileChannel pageFile;
+    private final ByteBuffer pageBuffer = ByteBuffer.allocate(PAGE_BYTES);
+    // Az elárasztás verme: felfedett, de még ki nem bontott cellák. A korlát elérésekor itt marad a határ.
+    private final IntDeque floodX = new IntDeque(256);
+    private final IntDeque floodY = new IntDeque(256);
+
+    private long lastKey = Long.MIN_VALUE; // Az utoljára elért darab gyorsítótára
+    private MineChunk lastChunk;
+
+    private long chunksGenerated;
+    private long chunksPagedOut;
+    private long chunksPagedIn;
+
+    /**
+     * @param seed A világ seedje.
+     * @param density Az aknák aránya (0..1).
+     * @param capacity A memóriában tartott darabok legnagyobb száma.
+     * @param pagePath A lapozófájl helye; a meglévő tartalma elvész.
+     * @throws IOException Ha a lapozófájl nem nyitható meg.
+     */
+    public ChunkedMineWorld(long seed, double density, int capacity, Path pagePath) throws IOException {
+        if (density < 0 || density > 1 || capacity < 9) {
+            throw new IllegalArgumentException("A sűrűség 0 és 1 között, a kapacitás legalább 9 legyen.");
+        }
+        this.seed = seed;
+        this.mineThreshold = (long) (density * (1 << 24));
+        this.capacity = capacity;
+        this.pageFile = FileChannel.open(pagePath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.loaded = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MineChunk> eldest) {
+                if (size() <= ChunkedMineWorld.this.capacity) {
+                    return false;
+                }
+                evict(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Akna van-e a cellán. Tiszta függvény a seedből; a kezdőpont 3x3-as környezete mindig biztonságos.
+     */
+    public boolean isMine(int x, int y) {
+        if (x >= -1 && x <= 1 && y >= -1 && y <= 1) {
+            return false;
+        }
+        long h = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (y * 0xC2B2AE3D27D4EB4FL);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return (h >>> 40) < mineThreshold;
+    }
+
+    public int getNeighborCount(int x, int y) {
+        return chunkAt(x, y).neighborCount(x & CHUNK_MASK, y & CHUNK_MASK);
+    }
+
+    public boolean isRevealed(int x, int y) {
+        return chunkAt(x, y).isRevealed(x & CHUNK_MASK, y & CHUNK_MASK);
+    }
+
+    public boolean isFlagged(int x, int y) {
+        return chunkAt(x, y).isFlagged(x & CHUNK_MASK, y & CHUNK_MASK);
+    }
+
+    /**
+     * Váltja a zászlót egy még fel nem fedett cellán.
+     *
+     * @return A zászló új állapota.
+     */
+    public boolean toggleFlag(int x, int y) {
+        MineChunk chunk = chunkAt(x, y);
+        int lx = x & CHUNK_MASK;
+        int ly = y & CHUNK_MASK;
+        if (chunk.isRevealed(lx, ly)) {
+            return false;
+        }
+        chunk.flagged[ly] ^= 1L << lx;
+        chunk.modified = true;
+        return chunk.isFlagged(lx, ly);
+    }
+
+    /**
+     * Felfedi a cellát; nullás cellánál a nullás régiót is, darabhatárokon át.
+     * Egy hívás legfeljebb kb. MAX_FLOOD_CELLS cellát fed fel; ha a régió ennél nagyobb, a határa
+     * megmarad, és a continueReveal (vagy a következő reveal) onnan folytatja.
+     *
+     * @return A felfedett cellák száma, vagy -1, ha aknára lépett.
+     */
+    public int reveal(int x, int y) {
+        MineChunk chunk = chunkAt(x, y);
+        if (chunk.isRevealed(x & CHUNK_MASK, y & CHUNK_MASK) || chunk.isFlagged(x & CHUNK_MASK, y & CHUNK_MASK)) {
+            return 0;
+        }
+        chunk.setRevealed(x & CHUNK_MASK, y & CHUNK_MASK);
+        if (isMine(x, y)) {
+            return -1;
+        }
+        floodX.addLast(x);
+        floodY.addLast(y);
+        return 1 + flood();
+    }
+
+    /**
+     * Folytatja a korlát miatt félbehagyott elárasztást.
+     *
+     * @return Az újonnan felfedett cellák száma (0, ha nincs félbehagyott elárasztás).
+     */
+    public int continueReveal() {
+        return flood();
+    }
+
+    /** Van-e a korlát miatt félbehagyott elárasztás. */
+    public boolean hasPendingReveal() {
+        return !floodX.isEmpty();
+    }
+
+    // Kibontja a verem nullás celláit; a korlát elérésekor a még ki nem bontott cellák a veremben maradnak,
+    // így minden felfedett nullás cella vagy ki van bontva, vagy folytatásra vár.
+    private int flood() {
+        int revealed = 0;
+        while (!floodX.isEmpty() && revealed < MAX_FLOOD_CELLS) {
+            int cx = floodX.pollLast();
+            int cy = floodY.pollLast();
+            if (getNeighborCount(cx, cy) != 0) {
+                continue;
+            }
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = cx + dx;
+                    int ny = cy + dy;
+                    MineChunk n = chunkAt(nx, ny);
+                    int lx = nx & CHUNK_MASK;
+                    int ly = ny & CHUNK_MASK;
+                    if (!n.isRevealed(lx, ly) && !n.isFlagged(lx, ly)) {
+                        n.setRevealed(lx, ly);
+                        revealed++;
+                        floodX.addLast(nx);
+                        floodY.addLast(ny);
+                    }
+                }
+            }
+        }
+        return revealed;
+    }
+
+    // A cellát tartalmazó darab; szükség esetén generálja és/vagy a lapozófájlból visszatölti.
+    private MineChunk chunkAt(int x, int y) {
+        int cx = x >> CHUNK_BITS;
+        int cy = y >> CHUNK_BITS;
+        long key = ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+        if (key == lastKey && lastChunk != null) {
+            return lastChunk;
+        }
+        MineChunk chunk = loaded.get(key);
+        if (chunk == null) {
+            chunk = generate(cx, cy);
+            Integer slot = pageSlots.get(key);
+            if (slot != null) {
+                readPage(slot, chunk);
+            }
+            lastChunk = null; // A put kiszoríthatja az eddigi gyorsítótárazott darabot
+            loaded.put(key, chunk);
+        }
+        lastKey = key;
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    private MineChunk generate(int cx, int cy) {
+        chunksGenerated++;
+        MineChunk chunk = new MineChunk();
+        int x0 = cx << CHUNK_BITS;
+        int y0 = cy << CHUNK_BITS;
+        // Az aknák a darab körüli egycellás kerettel együtt: 66 sor, soronként 66 bit
+        for (int r = -1; r <= CHUNK_SIZE; r++) {
+            long row = 0;
+            for (int c = 0; c < CHUNK_SIZE; c++) {
+                if (isMine(x0 + c, y0 + r)) {
+                    row |= 1L << c;
+                }
+            }
+            chunk.mines[r + 1] = row;
+        }
+        for (int r = 0; r < CHUNK_SIZE; r++) {
+            if (isMine(x0 - 1, y0 + r)) {
+                chunk.leftEdge |= 1L << r;
+            }
+            if (isMine(x0 + CHUNK_SIZE, y0 + r)) {
+                chunk.rightEdge |= 1L << r;
+            }
+        }
+        chunk.corners = (isMine(x0 - 1, y0 - 1) ? 1 : 0)
+                | (isMine(x0 + CHUNK_SIZE, y0 - 1) ? 2 : 0)
+                | (isMine(x0 - 1, y0 + CHUNK_SIZE) ? 4 : 0)
+                | (isMine(x0 + CHUNK_SIZE, y0 + CHUNK_SIZE) ? 8 : 0);
+        return chunk;
+    }
+
+    private void evict(long key, MineChunk chunk) {
+        if (chunk == lastChunk) {
+            lastChunk = null;
+        }
+        if (!chunk.modified) {
+            return; // Változatlan darab: bármikor újragenerálható
+        }
+        Integer slot = pageSlots.get(key);
+        if (slot == null) {
+            slot = pageSlots.size();
+            pageSlots.put(key, slot);
+        }
+        try {
+            pageBuffer.clear();
+            for (long row : chunk.revealed) {
+                pageBuffer.putLong(row);
+            }
+            for (long row : chunk.flagged) {
+                pageBuffer.putLong(row);
+            }
+            pageBuffer.flip();
+            long position = (long) slot * PAGE_BYTES;
+            while (pageBuffer.hasRemaining()) {
+                position += pageFile.write(pageBuffer, position);
+            }
+            chunksPagedOut++;
+        } catch (IOException e) {
+            throw new IllegalStateException("Nem sikerült kiírni a darabot a lapozófájlba.", e);
+        }
+    }
+
+    private void readPage(int slot, MineChunk chunk) {
+        try {
+            pageBuffer.clear();
+            long position = (long) slot * PAGE_BYTES;
+            while (pageBuffer.hasRemaining()) {
+                int read = pageFile.read(pageBuffer, position);
+                if (read < 0) {
+                    throw new IOException("Csonka lapozófájl.");
+                }
+                position += read;
+            }
+            pageBuffer.flip();
+            for (int r = 0; r < CHUNK_SIZE; r++) {
+                chunk.revealed[r] = pageBuffer.getLong();
+            }
+            for (int r = 0; r < CHUNK_SIZE; r++) {
+                chunk.flagged[r] = pageBuffer.getLong();
+            }
+            chunk.modified = true; // Továbbra is a lapozófájlban a helye
+            chunksPagedIn++;
+        } catch (IOException e) {
+            throw new IllegalStateException("Nem sikerült beolvasni a darabot a lapozófájlból.", e);
+        }
+    }
+
+    public int getLoadedChunkCount() {
+        return loaded.size();
+    }
+
+    public long getChunksGenerated() {
+        return chunksGenerated;
+    }
+
+    public long getChunksPagedOut() {
+        return chunksPagedOut;
+    }
+
+    public long getChunksPagedIn() {
+        return chunksPagedIn;
+    }
+
+    /** A lapozófájlban tárolt (módosított) darabok száma. */
+    public int getPagedChunkCount() {
+        return pageSlots.size();
+    }
+
+    /**
+     * Kiírja a memóriában lévő módosított darabokat, és lezárja a lapozófájlt.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Iterator<Map.Entry<Long, MineChunk>> it = loaded.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, MineChunk> entry = it.next();
+            evict(entry.getKey(), entry.getValue());
+            it.remove();
+        }
+        pageFile.close();
+    }
+
+    /**
+     * Demo: a nézetet messzire görgetjük, közben felfedünk és zászlózunk, majd visszatérünk a kezdőponthoz.
+     */
+    public static void main(String[] args) throws IOException {
+        Path pagePath = Files.createTempFile("mineworld", ".pages");
+        try (ChunkedMineWorld world = new ChunkedMineWorld(2024L, 0.15, 64, pagePath)) {
+            int opened = world.reveal(0, 0);
+            world.toggleFlag(5, 5);
+            System.out.println("Kezdő felfedés: " + opened + " cella");
+
+            long start = System.nanoTime();
+            int steps = 20_000;
+            for (int i = 1; i <= steps; i++) {
+                int x = i * CHUNK_SIZE; // Minden lépésben egy darabbal jobbra és lefelé görgetünk
+                int y = i * CHUNK_SIZE / 2;
+                if (!world.isMine(x, y) && world.reveal(x, y) < 0) {
+                    throw new IllegalStateException("Aknát fedtünk fel: " + x + ", " + y);
+                }
+                if (i % 10 == 0) {
+                    world.toggleFlag(x + 1, y + 1);
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%d lépés %.1f ms alatt; betöltött darabok: %d, generált: %d, lapozott ki: %d%n",
+                    steps, nanos / 1e6, world.getLoadedChunkCount(), world.getChunksGenerated(),
+                    world.getChunksPagedOut());
+
+            boolean originKept = world.isRevealed(0, 0) && world.isFlagged(5, 5);
+            System.out.println("A kezdőpont állapota megmaradt: " + originKept + ", visszatöltve: "
+                    + world.getChunksPagedIn() + ", lapozófájlban: " + world.getPagedChunkCount() + " darab ("
+                    + Files.size(pagePath) / 1024 + " KB)");
+        } finally {
+            Files.deleteIfExists(pagePath);
+        }
+
+        // Akna nélküli világ: a nullás régió végtelen, a felfedés a korlátnál megáll, és folytatható
+        pagePath = Files.createTempFile("mineworld", ".pages");
+        try (ChunkedMineWorld empty = new ChunkedMineWorld(7L, 0, 64, pagePath)) {
+            int first = empty.reveal(0, 0);
+            boolean pending = empty.hasPendingReveal();
+            int second = empty.continueReveal();
+            System.out.println("Üres világ: " + first + " + " + second + " cella, félbehagyva: " + pending
+                    + ", továbbra is folytatható: " + empty.hasPendingReveal());
+        } finally {
+            Files.deleteIfExists(pagePath);
+        }
+    }
+}
+
+// Egy 64x64-es darab. Az aknák a kerettel együtt vannak tárolva: mines[r + 1] a darab r-edik sora
+// (-1..64), a bal és jobb oldali keretoszlop r-edik sora (0..63) a leftEdge/rightEdge r-edik bitje,
+// a négy sarok a corners bitjei (bal felső, jobb felső, bal alsó, jobb alsó).
+final class MineChunk {
+    final long[] mines = new long[ChunkedMineWorld.CHUNK_SIZE + 2];
+    long leftEdge;
+    long rightEdge;
+    int corners;
+    final long[] revealed = new long[ChunkedMineWorld.CHUNK_SIZE];
+    final long[] flagged = new long[ChunkedMineWorld.CHUNK_SIZE];
+    boolean modified;
+
+    boolean isRevealed(int lx, int ly) {
+        return (revealed[ly] & (1L << lx)) != 0;
+    }
+
+    void setRevealed(int lx, int ly) {
+        revealed[ly] |= 1L << lx;
+        modified = true;
+    }
+
+    boolean isFlagged(int lx, int ly) {
+        return (flagged[ly] & (1L << lx)) != 0;
+    }
+
+    // A (lx, ly) körüli 8 cella aknái, a kerettel; lx, ly a darabon belül (0..63).
+    int neighborCount(int lx, int ly) {
+        int count = 0;
+        for (int r = ly; r <= ly + 2; r++) { // mines[r] a darab (r - 1)-edik sora
+            long row = mines[r];
+            // A sor három bitje lx-1..lx+1; a darab szélén a keretoszlop bitje pótolja
+            long window = lx == 0 ? (row << 1) & 0b110 : (row >>> (lx - 1)) & 0b111;
+            if (lx == 0) {
+                window |= edgeBit(leftEdge, corners, r - 1);
+            } else if (lx == ChunkedMineWorld.CHUNK_SIZE - 1) {
+                window |= edgeBit(rightEdge, corners >>> 1, r - 1) << 2;
+            }
+            count += Long.bitCount(window);
+        }
+        if ((mines[ly + 1] & (1L << lx)) != 0) {
+            count--; // A cella saját aknája nem számít
+        }
+        return count;
+    }
+
+    // A keretoszlop row-adik sorának bitje; a -1. és 64. sor a sarokbitekből jön.
+    private static long edgeBit(long edge, int corners, int row) {
+        if (row < 0) {
+            return corners & 1;
+        }
+        if (row >= ChunkedMineWorld.CHUNK_SIZE) {
+            return (corners >>> 2) & 1;
+        }
+        return (edge >>> row) & 1;
+    }
+}
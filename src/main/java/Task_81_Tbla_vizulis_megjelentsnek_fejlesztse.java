@@ -2,6 +2,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Random;
 
 /**
  * Fő osztály a tábla vizuális megjelenítésének demonstrálására.
@@ -51,7 +53,15 @@ public class BoardVisualizer extends JFrame {
         setVisible(true);
     }
 
+    /**
+     * Elindítja a demót; a "bench" argumentummal a képkockaidő-mérést futtatja ablak nélkül.
+     */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("bench")) {
+            BoardPanel.benchmark(500, 2);
+            BoardPanel.benchmark(500, 8);
+            return;
+        }
         // A GUI frissítéseket az Event Dispatch Thread-en kell futtatni
         SwingUtilities.invokeLater(BoardVisualizer::new);
     }
@@ -60,6 +70,14 @@ public class BoardVisualizer extends JFrame {
 /**
  * A tábla vizuális megjelenítéséért felelős JPanel.
  * Rajzolja a rácsot és a cellákat az állapotuknak megfelelő színnel.
+ *
+ * Minden állapothoz egy előre megrajzolt, a képernyővel kompatibilis cellakép (csempe) tartozik,
+ * amely a cella bal és felső rácsvonalát is tartalmazza, így egy cella kirajzolása egyetlen
+ * drawImage. A csempékből egy táblaméretű háttérképet tartunk karban: a setCellState csak
+ * megjelöli a cellát, és csak a cella téglalapját kéri újrarajzolni; a rajzolás a vágási
+ * téglalapba eső megjelölt cellákat frissíti a háttérképen, majd a látható részt egyben másolja.
+ * Nagyon nagy (MAX_BUFFER_PIXELS feletti) táblánál nincs háttérkép, a látható cellák csempéi
+ * közvetlenül rajzolódnak.
  */
 class BoardPanel extends JPanel {
 
@@ -73,31 +91,36 @@ class BoardPanel extends JPanel {
     private static final Color PLAYER1_COLOR = Color.BLUE;
     private static final Color PLAYER2_COLOR = Color.RED;
     private static final Color GRID_COLOR = Color.DARK_GRAY;
+    private static final Color[] STATE_COLORS = {EMPTY_COLOR, PLAYER1_COLOR, PLAYER2_COLOR};
+    private static final long MAX_BUFFER_PIXELS = 4096L * 4096; // A háttérkép legnagyobb mérete
+
+    // Csempék állapotonként és a háttérkép; újrakészülnek, ha a panel másik képernyőre
+    // (GraphicsConfiguration) kerül
+    private Image[] tiles;
+    private BufferedImage backBuffer;
+    private GraphicsConfiguration tilesConfig;
+    private final BitGameBoard dirtyCells; // A háttérképen még nem frissített cellák
 
     public BoardPanel(int rows, int cols, int cellSize) {
         this.rows = rows;
         this.cols = cols;
         this.cellSize = cellSize;
-        this.boardState = new int[rows][cols];
-
-        // A tábla inicializálása üres állapotra
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                boardState[i][j] = 0;
-            }
-        }
+        this.boardState = new int[rows][cols]; // Kezdetben minden cella üres (0)
+        this.dirtyCells = new BitGameBoard(rows, cols);
+        setOpaque(true);
     }
 
     /**
-     * Beállítja egy adott cella állapotát és kéri a panel újrarajzolását.
+     * Beállítja egy adott cella állapotát, és csak a cella területének újrarajzolását kéri.
      * @param row A sor indexe.
      * @param col Az oszlop indexe.
      * @param state Az új állapot (0: üres, 1: játékos 1, 2: játékos 2).
      */
     public void setCellState(int row, int col, int state) {
-        if (row >= 0 && row < rows && col >= 0 && col < cols) {
+        if (row >= 0 && row < rows && col >= 0 && col < cols && boardState[row][col] != state) {
             boardState[row][col] = state;
-            repaint(); // Kéri a vizuális frissítést
+            dirtyCells.setUnchecked(row * cols + col);
+            repaint(col * cellSize, row * cellSize, cellSize, cellSize); // Csak ez a cella
         }
     }
 
@@ -116,47 +139,108 @@ class BoardPanel extends JPanel {
 
     /**
      * Felülírja a paintComponent metódust a tábla egyedi rajzolásához.
-     * Először a cellákat rajzolja ki, majd a rácsvonalakat a tetejére.
+     * Csak a vágási téglalapba eső cellákkal foglalkozik: a megváltozottakat frissíti a háttérképen,
+     * majd a látható részt kimásolja; végül a tábla alsó és jobb szélső rácsvonalát, ha az látszik.
      */
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g); // Hívja a szülő osztály metódusát a háttér rajzolásához
-        Graphics2D g2d = (Graphics2D) g;
-
-        // Cellák rajzolása
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                int x = c * cellSize;
-                int y = r * cellSize;
-
-                Color cellColor;
-                switch (boardState[r][c]) {
-                    case 1:
-                        cellColor = PLAYER1_COLOR;
-                        break;
-                    case 2:
-                        cellColor = PLAYER2_COLOR;
-                        break;
-                    default: // 0 vagy bármely más érték (üres)
-                        cellColor = EMPTY_COLOR;
-                        break;
-                }
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        int boardWidth = cols * cellSize;
+        int boardHeight = rows * cellSize;
+        if (clip.x + clip.width > boardWidth || clip.y + clip.height > boardHeight) {
+            super.paintComponent(g); // A táblán kívüli háttér
+        }
 
-                g2d.setColor(cellColor);
-                g2d.fillRect(x, y, cellSize, cellSize); // Kitöltött téglalap a cellának
+        Image[] cellTiles = tiles();
+        int r0 = Math.max(0, clip.y / cellSize);
+        int r1 = Math.min(rows - 1, (clip.y + clip.height - 1) / cellSize);
+        int c0 = Math.max(0, clip.x / cellSize);
+        int c1 = Math.min(cols - 1, (clip.x + clip.width - 1) / cellSize);
+        if (backBuffer == null) {
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    g.drawImage(tileFor(cellTiles, boardState[r][c]), c * cellSize, r * cellSize, null);
+                }
+            }
+        } else if (r0 <= r1 && c0 <= c1) {
+            Graphics2D bufferGraphics = null;
+            for (int r = r0; r <= r1; r++) {
+                int base = r * cols;
+                int last = base + c1;
+                for (int i = dirtyCells.nextSetBit(base + c0); i >= 0 && i <= last; i = dirtyCells.nextSetBit(i + 1)) {
+                    if (bufferGraphics == null) {
+                        bufferGraphics = backBuffer.createGraphics();
+                    }
+                    int c = i - base;
+                    bufferGraphics.drawImage(tileFor(cellTiles, boardState[r][c]), c * cellSize, r * cellSize, null);
+                    dirtyCells.clearUnchecked(i);
+                }
+            }
+            if (bufferGraphics != null) {
+                bufferGraphics.dispose();
             }
+            int x0 = c0 * cellSize;
+            int y0 = r0 * cellSize;
+            int x1 = (c1 + 1) * cellSize;
+            int y1 = (r1 + 1) * cellSize;
+            g.drawImage(backBuffer, x0, y0, x1, y1, x0, y0, x1, y1, null);
         }
 
-        // Rácsvonalak rajzolása a cellák tetejére
-        g2d.setColor(GRID_COLOR);
-        for (int r = 0; r <= rows; r++) {
-            g2d.drawLine(0, r * cellSize, cols * cellSize, r * cellSize); // Vízszintes vonalak
+        // A csempék csak a bal és felső vonalat tartalmazzák, a tábla záró vonalai külön kellenek
+        g.setColor(GRID_COLOR);
+        if (clip.y + clip.height > boardHeight) {
+            g.drawLine(0, boardHeight, boardWidth, boardHeight);
         }
-        for (int c = 0; c <= cols; c++) {
-            g2d.drawLine(c * cellSize, 0, c * cellSize, rows * cellSize); // Függőleges vonalak
+        if (clip.x + clip.width > boardWidth) {
+            g.drawLine(boardWidth, 0, boardWidth, boardHeight);
         }
     }
 
+    private static Image tileFor(Image[] cellTiles, int state) {
+        return state >= 0 && state < cellTiles.length ? cellTiles[state] : cellTiles[0]; // Más érték: üres
+    }
+
+    // Az állapotonkénti csempék és a háttérkép, szükség esetén (újra) elkészítve.
+    private Image[] tiles() {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (tiles == null || config != tilesConfig) {
+            tiles = new Image[STATE_COLORS.length];
+            for (int state = 0; state < tiles.length; state++) {
+                tiles[state] = createTile(config, STATE_COLORS[state]);
+            }
+            long bufferPixels = (long) rows * cols * cellSize * cellSize;
+            backBuffer = bufferPixels <= MAX_BUFFER_PIXELS
+                    ? createImage(config, cols * cellSize, rows * cellSize)
+                    : null;
+            dirtyCells.fill(true); // Az új háttérképre minden cellát ki kell rajzolni
+            tilesConfig = config;
+        }
+        return tiles;
+    }
+
+    // A kompatibilis képet a Java2D a videomemóriában gyorsítótárazhatja; képernyő nélkül sima kép.
+    // (VolatileImage tartalma bármikor elveszhet, ezért a háttérképhez nem alkalmas.)
+    private static BufferedImage createImage(GraphicsConfiguration config, int width, int height) {
+        return config != null
+                ? config.createCompatibleImage(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private Image createTile(GraphicsConfiguration config, Color color) {
+        BufferedImage tile = createImage(config, cellSize, cellSize);
+        Graphics2D g2d = tile.createGraphics();
+        g2d.setColor(color);
+        g2d.fillRect(0, 0, cellSize, cellSize);
+        g2d.setColor(GRID_COLOR);
+        g2d.drawLine(0, 0, cellSize - 1, 0); // Felső vonal
+        g2d.drawLine(0, 0, 0, cellSize - 1); // Bal oldali vonal
+        g2d.dispose();
+        return tile;
+    }
+
     /**
      * Visszaadja a panel preferált méretét, ami a tábla teljes mérete.
      */
@@ -164,4 +248,46 @@ class BoardPanel extends JPanel {
     public Dimension getPreferredSize() {
         return new Dimension(cols * cellSize, rows * cellSize);
     }
+
+    /**
+     * Képkockaidő-mérés egy nagy táblán, képernyő nélkül: teljes újrarajzolás és egy cella
+     * változása utáni, a cellára vágott újrarajzolás.
+     */
+    static void benchmark(int size, int cellSize) {
+        BoardPanel panel = new BoardPanel(size, size, cellSize);
+        panel.setSize(panel.getPreferredSize());
+        Random random = new Random(1);
+        for (int i = 0; i < size * size / 3; i++) {
+            panel.setCellState(random.nextInt(size), random.nextInt(size), 1 + random.nextInt(2));
+        }
+        BufferedImage frame = new BufferedImage(size * cellSize, size * cellSize, BufferedImage.TYPE_INT_RGB);
+
+        int frames = 50;
+        long fullNanos = 0;
+        for (int f = -20; f < frames; f++) { // Az első 20 bemelegítés
+            Graphics2D g = frame.createGraphics();
+            long start = System.nanoTime();
+            panel.paint(g);
+            if (f >= 0) {
+                fullNanos += System.nanoTime() - start;
+            }
+            g.dispose();
+        }
+
+        int changes = 20_000;
+        long cellNanos = 0;
+        for (int i = 0; i < changes; i++) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            panel.setCellState(row, col, random.nextInt(3));
+            Graphics2D g = frame.createGraphics();
+            g.setClip(col * cellSize, row * cellSize, cellSize, cellSize); // A repaint által kért terület
+            long start = System.nanoTime();
+            panel.paint(g);
+            cellNanos += System.nanoTime() - start;
+            g.dispose();
+        }
+        System.out.printf("%dx%d tábla, %d px cellák: teljes képkocka %.2f ms, egy cella változása %.1f µs%n",
+                size, size, cellSize, fullNanos / 1e6 / frames, cellNanos / 1e3 / changes);
+    }
 }
@@ -0,0 +1,196 @@
+/**
+ * Aknakereső felfedő motor.
+ *
+ * Egy cella felfedésekor, ha körülötte nincs akna, a teljes nullás régiót és annak szegélyét
+ * felfedi. A bejárás rekurzió helyett explicit primitív veremmel (IntDeque) és felfedettségi
+ * bittáblával dolgozik, így nagy, nyitott táblán sem csordul túl a hívási verem, és cellánként
+ * nem foglal memóriát. A zászlóval jelölt cellákat (CellFlagger) nem fedi fel.
+ *
+ * Minden felfedés után a frissen felfedett cellák sorfolytonos indexei elérhetők
+ * (getDeltaSize / getDeltaCell), hogy a megjelenítés csak ezeket rajzolja újra.
+ */
+public class RevealEngine {
+
+    /** A felfedés eredménye. */
+    public enum Result {
+        NOTHING,   // A cella már felfedett vagy zászlós
+        REVEALED,  // Biztonságos cellák lettek felfedve
+        MINE_HIT   // Aknára lépett
+    }
+
+    private final int rows;
+    private final int cols;
+    private final BitGameBoard mines;
+    private final ByteGameBoard counts;
+    private final BitGameBoard flagged; // A zászlók bittáblája, index alapú eléréshez
+    private final BitGameBoard revealed;
+    private int revealedTotal;
+
+    private final IntDeque stack = new IntDeque(1024); // A bejárás verme, újrahasznosítva
+    private final IntDeque delta = new IntDeque(1024); // Az utolsó felfedés cellái
+
+    /**
+     * @param field Az aknamező (aknák és szomszédszámok).
+     * @param flags A játékos zászlói; méretének egyeznie kell az aknamezőével.
+     * @throws IllegalArgumentException Ha a méretek eltérnek.
+     */
+    public RevealEngine(Minefield field, CellFlagger flags) {
+        if (field.getRows() != flags.getRows() || field.getCols() != flags.getCols()) {
+            throw new IllegalArgumentException("Az aknamező és a zászlók méretének egyeznie kell.");
+        }
+        this.rows = field.getRows();
+        this.cols = field.getCols();
+        this.mines = field.mineBoard();
+        this.counts = field.countBoard();
+        this.flagged = flags.flagBoard();
+        this.revealed = new BitGameBoard(rows, cols);
+    }
+
+    /**
+     * Felfedi a cellát; nullás cellánál a teljes összefüggő nullás régiót és a szegélyét is.
+     *
+     * @param row A cella sorindexe.
+     * @param col A cella oszlopindexe.
+     * @return A felfedés eredménye.
+     * @throws IndexOutOfBoundsException Ha a koordináták kívül esnek a táblán.
+     */
+    public Result reveal(int row, int col) {
+        int start = BoardChecks.checkedIndex(rows, cols, row, col);
+        delta.clear();
+        if (revealed.getUnchecked(start) || flagged.getUnchecked(start)) {
+            return Result.NOTHING;
+        }
+        revealed.setUnchecked(start);
+        if (mines.getUnchecked(start)) {
+            delta.addLast(start);
+            return Result.MINE_HIT; // A felfedett akna nem számít bele a revealedTotal-ba
+        }
+        revealedTotal++;
+
+        stack.clear();
+        stack.addLast(start);
+        while (!stack.isEmpty()) {
+            int cell = stack.pollLast();
+            delta.addLast(cell);
+            if (counts.getUnchecked(cell) != 0) {
+                continue; // Szegélycella: felfedjük, de nem terjesztünk tovább
+            }
+            int r = cell / cols;
+            int c = cell - r * cols;
+            int r0 = Math.max(0, r - 1);
+            int r1 = Math.min(rows - 1, r + 1);
+            int c0 = Math.max(0, c - 1);
+            int c1 = Math.min(cols - 1, c + 1);
+            for (int nr = r0; nr <= r1; nr++) {
+                for (int nc = c0; nc <= c1; nc++) {
+                    int neighbor = nr * cols + nc;
+                    // Nullás cella szomszédja nem lehet akna, csak a felfedettséget és a zászlót nézzük
+                    if (!revealed.getUnchecked(neighbor) && !flagged.getUnchecked(neighbor)) {
+                        revealed.setUnchecked(neighbor);
+                        revealedTotal++;
+                        stack.addLast(neighbor);
+                    }
+                }
+            }
+        }
+        return Result.REVEALED;
+    }
+
+    public boolean isRevealed(int row, int col) {
+        return revealed.get(row, col);
+    }
+
+    /** Az utolsó reveal() hívás által felfedett cellák száma. */
+    public int getDeltaSize() {
+        return delta.size();
+    }
+
+    /** Az utolsó reveal() hívás i-edik felfedett cellájának sorfolytonos indexe. */
+    public int getDeltaCell(int i) {
+        return delta.get(i);
+    }
+
+    /** A felfedett biztonságos (nem aknás) cellák száma. */
+    public int getRevealedTotal() {
+        return revealedTotal;
+    }
+
+    /** Nyert-e a játékos: minden nem aknás cella felfedve, és egyetlen akna sem. */
+    public boolean isWon(int mineCount) {
+        return revealedTotal == rows * cols - mineCount;
+    }
+
+    // A felfedett cellák bittáblája mentéshez; csak olvasásra.
+    BitGameBoard revealedBoard() {
+        return revealed;
+    }
+
+    /**
+     * Visszaállítja a felfedett cellákat (pl. betöltött mentésből).
+     *
+     * @param saved A felfedett cellák; méretének egyeznie kell a tábláéval.
+     * @throws IllegalArgumentException Ha a méretek eltérnek.
+     */
+    void restoreRevealed(BitGameBoard saved) {
+        revealed.copyFrom(saved);
+        revealedTotal = 0;
+        long[] revealedWords = revealed.words();
+        long[] mineWords = mines.words();
+        for (int w = 0; w < revealedWords.length; w++) {
+            revealedTotal += Long.bitCount(revealedWords[w] & ~mineWords[w]); // Csak a biztonságos cellák
+        }
+        delta.clear();
+    }
+
+    /** Minden cellát újra lefed (új játékhoz ugyanazon az aknamezőn). */
+    public void reset() {
+        revealed.clear();
+        revealedTotal = 0;
+        delta.clear();
+    }
+
+    /**
+     * Demo: egy 10^6 cellás üres régió felfedése, és egy kis tábla zászlókkal.
+     */
+    public static void main(String[] args) {
+        int size = 1000;
+        Minefield field = new Minefield(size, size);
+        field.addMine(size - 1, size - 1); // Egyetlen akna a sarokban
+        RevealEngine engine = new RevealEngine(field, new CellFlagger(size, size));
+
+        for (int warmup = 0; warmup < 5; warmup++) {
+            engine.reset();
+            engine.reveal(0, 0);
+        }
+        engine.reset();
+        long start = System.nanoTime();
+        Result result = engine.reveal(0, 0);
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%s: %d cella felfedve %.2f ms alatt, nyert: %b%n",
+                result, engine.getDeltaSize(), nanos / 1e6, engine.isWon(field.getMineCount()));
+
+        Minefield small = new Minefield(5, 8);
+        small.addMine(1, 5);
+        small.addMine(3, 2);
+        CellFlagger flags = new CellFlagger(5, 8);
+        flags.flagCell(0, 2); // A zászló megállítja a felfedést ezen a cellán
+        RevealEngine smallEngine = new RevealEngine(small, flags);
+        System.out.println(smallEngine.reveal(4, 7) + ", felfedve: " + smallEngine.getDeltaSize());
+        for (int r = 0; r < 5; r++) {
+            StringBuilder line = new StringBuilder();
+            for (int c = 0; c < 8; c++) {
+                if (flags.isFlagged(r, c)) {
+                    line.append('F');
+                } else if (!smallEngine.isRevealed(r, c)) {
+                    line.append('#');
+                } else {
+                    int count = small.getNeighborCount(r, c);
+                    line.append(count == 0 ? '.' : (char) ('0' + count));
+                }
+                line.append(' ');
+            }
+            System.out.println(line);
+        }
+        System.out.println(smallEngine.reveal(1, 5) + " (aknára lépés)");
+    }
+}
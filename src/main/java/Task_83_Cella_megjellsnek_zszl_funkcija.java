@@ -1,7 +1,17 @@
+/**
+ * A játékos zászlói (megjelölt cellái).
+ *
+ * A jelölések cellánként egy bitet foglalnak (BitGameBoard, long szavak), és az osztály folyamatosan
+ * számolja a zászlók számát, így a hátralévő aknák száma O(1). A tömeges műveletek (mind törlése,
+ * minden akna megjelölése győzelemkor, zászlók száma egy téglalapban vagy egy cella körül) szavanként
+ * dolgoznak.
+ */
 public class CellFlagger {
-    private final boolean[][] flaggedCells;
+    private final BitGameBoard flaggedCells;
+    private final long[] words; // A flaggedCells szavai a forró úthoz
     private final int rows;
     private final int cols;
+    private int flagCount;
 
     /**
      * Létrehoz egy új CellFlagger objektumot a megadott méretű rácshoz.
@@ -16,18 +26,8 @@ public class CellFlagger {
         }
         this.rows = rows;
         this.cols = cols;
-        this.flaggedCells = new boolean[rows][cols];
-    }
-
-    /**
-     * Ellenőrzi, hogy a megadott koordináták érvényesek-e a rácson belül.
-     *
-     * @param row A sor indexe.
-     * @param col Az oszlop indexe.
-     * @return true, ha a koordináták érvényesek, egyébként false.
-     */
-    private boolean isValidCoordinate(int row, int col) {
-        return row >= 0 && row < rows && col >= 0 && col < cols;
+        this.flaggedCells = new BitGameBoard(rows, cols);
+        this.words = flaggedCells.words();
     }
 
     /**
@@ -38,10 +38,10 @@ public class CellFlagger {
      * @throws IndexOutOfBoundsException Ha a megadott koordináták érvénytelenek.
      */
     public void flagCell(int row, int col) {
-        if (!isValidCoordinate(row, col)) {
-            throw new IndexOutOfBoundsException("Érvénytelen cella koordináták: (" + row + ", " + col + ")");
-        }
-        flaggedCells[row][col] = true;
+        int index = BoardChecks.checkedIndex(rows, cols, row, col);
+        long old = words[index >>> 6];
+        words[index >>> 6] = old | (1L << index);
+        flagCount += (int) (~old >>> index) & 1; // +1, ha eddig nem volt zászló
     }
 
     /**
@@ -52,10 +52,10 @@ public class CellFlagger {
      * @throws IndexOutOfBoundsException Ha a megadott koordináták érvénytelenek.
      */
     public void unflagCell(int row, int col) {
-        if (!isValidCoordinate(row, col)) {
-            throw new IndexOutOfBoundsException("Érvénytelen cella koordináták: (" + row + ", " + col + ")");
-        }
-        flaggedCells[row][col] = false;
+        int index = BoardChecks.checkedIndex(rows, cols, row, col);
+        long old = words[index >>> 6];
+        words[index >>> 6] = old & ~(1L << index);
+        flagCount -= (int) (old >>> index) & 1;
     }
 
     /**
@@ -66,10 +66,10 @@ public class CellFlagger {
      * @throws IndexOutOfBoundsException Ha a megadott koordináták érvénytelenek.
      */
     public void toggleFlag(int row, int col) {
-        if (!isValidCoordinate(row, col)) {
-            throw new IndexOutOfBoundsException("Érvénytelen cella koordináták: (" + row + ", " + col + ")");
-        }
-        flaggedCells[row][col] = !flaggedCells[row][col];
+        int index = BoardChecks.checkedIndex(rows, cols, row, col);
+        long old = words[index >>> 6];
+        words[index >>> 6] = old ^ (1L << index);
+        flagCount += 1 - 2 * ((int) (old >>> index) & 1);
     }
 
     /**
@@ -81,10 +81,106 @@ public class CellFlagger {
      * @throws IndexOutOfBoundsException Ha a megadott koordináták érvénytelenek.
      */
     public boolean isFlagged(int row, int col) {
-        if (!isValidCoordinate(row, col)) {
-            throw new IndexOutOfBoundsException("Érvénytelen cella koordináták: (" + row + ", " + col + ")");
+        return flaggedCells.getUnchecked(BoardChecks.checkedIndex(rows, cols, row, col));
+    }
+
+    /**
+     * Visszaadja a zászlók számát.
+     * @return A megjelölt cellák száma.
+     */
+    public int getFlagCount() {
+        return flagCount;
+    }
+
+    /**
+     * Visszaadja a hátralévő (még meg nem jelölt) aknák számát, ahogy a kijelző mutatja.
+     *
+     * @param mineCount Az aknák száma a táblán.
+     * @return Az aknák és a zászlók számának különbsége (negatív is lehet).
+     */
+    public int getRemainingMines(int mineCount) {
+        return mineCount - flagCount;
+    }
+
+    /**
+     * Eltávolítja az összes zászlót.
+     */
+    public void clearAll() {
+        flaggedCells.clear();
+        flagCount = 0;
+    }
+
+    /**
+     * Minden aknát megjelöl (győzelemkor); a meglévő zászlók megmaradnak.
+     *
+     * @param field Az aknamező; méretének egyeznie kell a rácséval.
+     * @throws IllegalArgumentException Ha a méretek eltérnek.
+     */
+    public void flagAllMines(Minefield field) {
+        BitGameBoard mines = field.mineBoard();
+        BoardChecks.checkSameSize(flaggedCells, mines);
+        long[] mineWords = mines.words();
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            words[w] |= mineWords[w];
+            count += Long.bitCount(words[w]);
+        }
+        flagCount = count;
+    }
+
+    /**
+     * Megszámolja a zászlókat egy téglalapban; a táblán kívül eső részt figyelmen kívül hagyja.
+     *
+     * @param row0 Az első sor (bezárólag).
+     * @param col0 Az első oszlop (bezárólag).
+     * @param row1 Az utolsó sor (bezárólag).
+     * @param col1 Az utolsó oszlop (bezárólag).
+     * @return A zászlók száma a téglalapban.
+     */
+    public int countFlagsInRect(int row0, int col0, int row1, int col1) {
+        int r0 = Math.max(0, row0);
+        int r1 = Math.min(rows - 1, row1);
+        int c0 = Math.max(0, col0);
+        int c1 = Math.min(cols - 1, col1);
+        if (c0 > c1) {
+            return 0;
+        }
+        int count = 0;
+        for (int r = r0; r <= r1; r++) {
+            int base = r * cols;
+            count += flaggedCells.cardinality(base + c0, base + c1 + 1);
         }
-        return flaggedCells[row][col];
+        return count;
+    }
+
+    /**
+     * Megszámolja a cella körüli (8 irányú) zászlókat, pl. akkordozáshoz: ha ez egyenlő a cella
+     * számával, a többi szomszéd biztonságosan felfedhető.
+     *
+     * @param row A cella sorindexe.
+     * @param col A cella oszlopindexe.
+     * @return A szomszédos zászlók száma (a cella saját zászlója nélkül).
+     * @throws IndexOutOfBoundsException Ha a megadott koordináták érvénytelenek.
+     */
+    public int countFlagsAround(int row, int col) {
+        int index = BoardChecks.checkedIndex(rows, cols, row, col);
+        return countFlagsInRect(row - 1, col - 1, row + 1, col + 1) - ((int) (words[index >>> 6] >>> index) & 1);
+    }
+
+    // A zászlók bittáblája a belső ciklusokhoz és a mentéshez (pl. RevealEngine, MinesweeperSaveFile).
+    BitGameBoard flagBoard() {
+        return flaggedCells;
+    }
+
+    /**
+     * Visszaállítja a zászlókat egy bittáblából (pl. betöltött mentésből).
+     *
+     * @param saved A zászlók; méretének egyeznie kell a rácséval.
+     * @throws IllegalArgumentException Ha a méretek eltérnek.
+     */
+    void restoreFrom(BitGameBoard saved) {
+        flaggedCells.copyFrom(saved);
+        flagCount = flaggedCells.cardinality();
     }
 
     /**
@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Aknakereső játékállapot tömör, verziózott bináris mentése és betöltése.
+ *
+ * A fájl egy 32 bájtos fejlécből és három bittáblából áll (aknák, felfedett és megjelölt cellák),
+ * mindegyik a BitGameBoard long szavainak sorrendjében, little-endian bájtsorrendben:
+ *
+ * <pre>
+ *  0  int   MAGIC ("MSAV")
+ *  4  short VERSION
+ *  6  byte  nehézségi szint (Difficulty ordinal)
+ *  7  byte  fenntartva (0)
+ *  8  int   sorok száma
+ * 12  int   oszlopok száma
+ * 16  long  seed
+ * 24  long  eltelt idő ezredmásodpercben
+ * 32  long[] aknák, long[] felfedett, long[] zászlók (egyenként (sorok * oszlopok + 63) / 64 szó)
+ * </pre>
+ *
+ * Cellánként 3 bit, szemben a szöveges kiírás cellánkénti 2 bájtjával. Mentéskor egyetlen
+ * pufferből, FileChannel-en át írunk; betöltéskor a fájlt memóriába képezzük, és a szavakat
+ * tömegesen (LongBuffer.get) másoljuk a táblákba, cellánkénti feldolgozás nélkül.
+ */
+public final class MinesweeperSaveFile {
+
+    static final int MAGIC = 0x5641534D; // "MSAV" little-endian sorrendben
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private final DifficultyManager.Difficulty difficulty;
+    private final long seed;
+    private final long elapsedTimeMillis;
+    private final BitGameBoard mines;
+    private final BitGameBoard revealed;
+    private final BitGameBoard flags;
+
+    private MinesweeperSaveFile(DifficultyManager.Difficulty difficulty, long seed, long elapsedTimeMillis,
+                                BitGameBoard mines, BitGameBoard revealed, BitGameBoard flags) {
+        this.difficulty = difficulty;
+        this.seed = seed;
+        this.elapsedTimeMillis = elapsedTimeMillis;
+        this.mines = mines;
+        this.revealed = revealed;
+        this.flags = flags;
+    }
+
+    /**
+     * Elmenti a játékállapotot a megadott fájlba (a meglévő tartalmat felülírja).
+     *
+     * @param path A mentésfájl helye.
+     * @param field Az aknamező.
+     * @param engine A felfedett cellák.
+     * @param flagger A játékos zászlói.
+     * @param timer A játékidő; futó időzítőnél az aktuális értéket menti.
+     * @param difficulty A nehézségi szint.
+     * @param seed A tábla seedje.
+     * @throws IOException Ha az írás nem sikerül.
+     * @throws IllegalArgumentException Ha a méretek eltérnek.
+     */
+    public static void save(Path path, Minefield field, RevealEngine engine, CellFlagger flagger, GameTimer timer,
+                            DifficultyManager.Difficulty difficulty, long seed) throws IOException {
+        int rows = field.getRows();
+        int cols = field.getCols();
+        BitGameBoard flagBits = flagger.flagBoard();
+        BoardChecks.checkSameSize(field.mineBoard(), flagBits);
+
+        long[] mineWords = field.mineBoard().words();
+        int wordCount = mineWords.length;
+        ByteBuffer buffer = ByteBuffer.allocate(fileSize(wordCount)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .put((byte) difficulty.ordinal())
+                .put((byte) 0)
+                .putInt(rows)
+                .putInt(cols)
+                .putLong(seed)
+                .putLong(timer.getElapsedTimeMillis());
+        LongBuffer words = buffer.asLongBuffer();
+        words.put(mineWords);
+        words.put(engine.revealedBoard().words());
+        words.put(flagBits.words());
+        buffer.clear();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Betölt egy mentésfájlt memóriába képezve.
+     *
+     * @param path A mentésfájl helye.
+     * @return A betöltött állapot.
+     * @throws IOException Ha a fájl nem olvasható, vagy nem érvényes mentés.
+     */
+    public static MinesweeperSaveFile load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Túl rövid mentésfájl: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Nem aknakereső mentésfájl: " + path);
+            }
+            short version = mapped.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Nem támogatott mentésverzió: " + version);
+            }
+            int difficultyIndex = mapped.get(6);
+            DifficultyManager.Difficulty[] difficulties = DifficultyManager.Difficulty.values();
+            if (difficultyIndex < 0 || difficultyIndex >= difficulties.length) {
+                throw new IOException("Ismeretlen nehézségi szint: " + difficultyIndex);
+            }
+            int rows = mapped.getInt(8);
+            int cols = mapped.getInt(12);
+            long seed = mapped.getLong(16);
+            long elapsedTimeMillis = mapped.getLong(24);
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE || elapsedTimeMillis < 0) {
+                throw new IOException("Sérült mentésfejléc: " + path);
+            }
+
+            BitGameBoard mines = new BitGameBoard(rows, cols);
+            BitGameBoard revealed = new BitGameBoard(rows, cols);
+            BitGameBoard flags = new BitGameBoard(rows, cols);
+            int wordCount = mines.words().length;
+            if (size != fileSize(wordCount)) {
+                throw new IOException("A mentésfájl mérete nem egyezik a fejléccel: " + path);
+            }
+            LongBuffer words = mapped.position(HEADER_BYTES).asLongBuffer();
+            words.get(mines.words());
+            words.get(revealed.words());
+            words.get(flags.words());
+            return new MinesweeperSaveFile(difficulties[difficultyIndex], seed, elapsedTimeMillis,
+                    mines, revealed, flags);
+        }
+    }
+
+    private static int fileSize(int wordCount) {
+        return Math.toIntExact(HEADER_BYTES + 3L * wordCount * Long.BYTES);
+    }
+
+    public DifficultyManager.Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getElapsedTimeMillis() {
+        return elapsedTimeMillis;
+    }
+
+    public int getRows() {
+        return mines.getRows();
+    }
+
+    public int getCols() {
+        return mines.getCols();
+    }
+
+    /** Új aknamező a mentett aknákból. */
+    public Minefield toMinefield() {
+        return Minefield.fromMineBoard(mines);
+    }
+
+    /**
+     * Visszaállítja a felfedett cellákat, a zászlókat és a játékidőt.
+     *
+     * @param engine A mentett aknamezőhöz (toMinefield) tartozó felfedő motor.
+     * @param flagger A zászlók; a meglévő jelöléseket felülírja.
+     * @param timer A játékidő; leállított állapotban marad.
+     * @throws IllegalArgumentException Ha a méretek eltérnek.
+     */
+    public void restoreInto(RevealEngine engine, CellFlagger flagger, GameTimer timer) {
+        flagger.restoreFrom(flags);
+        engine.restoreRevealed(revealed);
+        timer.restoreElapsedTimeMillis(elapsedTimeMillis);
+    }
+
+    /**
+     * Demo: egy 4000x4000-es játék mentése és visszatöltése, összevetve a szöveges kiírás méretével.
+     */
+    public static void main(String[] args) throws IOException {
+        int size = 4000;
+        long seed = 77L;
+        Random random = new Random(seed);
+        Minefield field = new Minefield(size, size);
+        for (int i = 0; i < size * size / 6; i++) {
+            field.addMine(random.nextInt(size), random.nextInt(size));
+        }
+        field.drainChangedCells();
+        CellFlagger flagger = new CellFlagger(size, size);
+        RevealEngine engine = new RevealEngine(field, flagger);
+        for (int i = 0; i < 20_000; i++) {
+            int r = random.nextInt(size);
+            int c = random.nextInt(size);
+            if (field.isMine(r, c)) {
+                flagger.flagCell(r, c);
+            } else {
+                engine.reveal(r, c);
+            }
+        }
+        GameTimer timer = new GameTimer();
+        timer.restoreElapsedTimeMillis(123_456);
+
+        Path path = Files.createTempFile("minesweeper", ".sav");
+        try {
+            long start = System.nanoTime();
+            save(path, field, engine, flagger, timer, DifficultyManager.Difficulty.HARD, seed);
+            long saveNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            MinesweeperSaveFile loaded = load(path);
+            long loadNanos = System.nanoTime() - start;
+
+            Minefield loadedField = loaded.toMinefield();
+            CellFlagger loadedFlags = new CellFlagger(size, size);
+            RevealEngine loadedEngine = new RevealEngine(loadedField, loadedFlags);
+            GameTimer loadedTimer = new GameTimer();
+            loaded.restoreInto(loadedEngine, loadedFlags, loadedTimer);
+
+            boolean same = loadedField.getMineCount() == field.getMineCount()
+                    && loadedEngine.getRevealedTotal() == engine.getRevealedTotal()
+                    && loadedFlags.getFlagCount() == flagger.getFlagCount()
+                    && loadedTimer.getElapsedTimeMillis() == timer.getElapsedTimeMillis()
+                    && loaded.getDifficulty() == DifficultyManager.Difficulty.HARD && loaded.getSeed() == seed;
+            for (int r = 0; r < size && same; r += 7) {
+                for (int c = 0; c < size && same; c += 3) {
+                    same = loadedField.getNeighborCount(r, c) == field.getNeighborCount(r, c)
+                            && loadedEngine.isRevealed(r, c) == engine.isRevealed(r, c)
+                            && loadedFlags.isFlagged(r, c) == flagger.isFlagged(r, c);
+                }
+            }
+
+            long textBytes = BoardChecks.toString(field.mineBoard()).length();
+            System.out.printf("%dx%d: mentés %.1f ms, betöltés %.1f ms, fájl %d KB (szöveges kiírás: %d KB)%n",
+                    size, size, saveNanos / 1e6, loadNanos / 1e6, Files.size(path) >> 10, textBytes >> 10);
+            System.out.println("Visszatöltött állapot egyezik: " + same + ", felfedve: "
+                    + loadedEngine.getRevealedTotal() + ", idő: " + loadedTimer.getElapsedTimeSeconds() + " s");
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
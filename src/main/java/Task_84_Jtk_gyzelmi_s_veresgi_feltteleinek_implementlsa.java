@@ -1,6 +1,6 @@
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.Random;
 
 public class GameConditions {
 
@@ -15,29 +15,68 @@ public class GameConditions {
         INVALID_STATE // Represents an error or unplayable state
     }
 
+    /**
+     * Int outcome codes used by the N-player and batch APIs.
+     * A non-negative outcome is the zero-based index of the winning player.
+     */
+    public static final int OUTCOME_DRAW = -1;
+    public static final int OUTCOME_ONGOING = -2;
+
     /**
      * A simple representation of the game's current state.
      * In a real game, this would be much more complex (e.g., board, piece positions, etc.).
+     * Scores are indexed by zero-based player index; player ids are "Player1", "Player2", ...
      */
     public static class GameState {
-        private final Map<String, Integer> playerScores;
+        private final int[] playerScores;
         private final int currentTurn;
         private final int maxTurns;
         private final int winningScoreThreshold;
         private final String currentPlayerId; // E.g., "Player1", "Player2"
 
         public GameState(int initialPlayer1Score, int initialPlayer2Score, int currentTurn, int maxTurns, int winningScoreThreshold, String currentPlayerId) {
-            this.playerScores = new HashMap<>();
-            this.playerScores.put("Player1", initialPlayer1Score);
-            this.playerScores.put("Player2", initialPlayer2Score);
+            this(new int[] {initialPlayer1Score, initialPlayer2Score}, currentTurn, maxTurns, winningScoreThreshold,
+                    currentPlayerId);
+        }
+
+        /**
+         * Creates a state for any number of players.
+         *
+         * @param playerScores Scores by player index; the array is copied.
+         * @throws IllegalArgumentException if there are no players.
+         */
+        public GameState(int[] playerScores, int currentTurn, int maxTurns, int winningScoreThreshold, String currentPlayerId) {
+            if (playerScores.length == 0) {
+                throw new IllegalArgumentException("A game needs at least one player.");
+            }
+            this.playerScores = playerScores.clone();
             this.currentTurn = currentTurn;
             this.maxTurns = maxTurns;
             this.winningScoreThreshold = winningScoreThreshold;
             this.currentPlayerId = currentPlayerId;
         }
 
+        /**
+         * Returns the score for a player id such as "Player1", or 0 for an unknown id.
+         */
         public int getScore(String playerId) {
-            return playerScores.getOrDefault(playerId, 0);
+            if (playerId == null || !playerId.startsWith("Player")) {
+                return 0;
+            }
+            try {
+                int index = Integer.parseInt(playerId.substring("Player".length())) - 1;
+                return index >= 0 && index < playerScores.length ? playerScores[index] : 0;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        public int getScore(int playerIndex) {
+            return playerScores[playerIndex];
+        }
+
+        public int getPlayerCount() {
+            return playerScores.length;
         }
 
         public int getCurrentTurn() {
@@ -66,10 +105,13 @@ public class GameConditions {
      */
     public static GameOutcome checkGameOutcome(GameState state) {
         Objects.requireNonNull(state, "Game state cannot be null.");
+        if (state.getPlayerCount() != 2) {
+            return GameOutcome.INVALID_STATE; // Use evaluateOutcome for other player counts
+        }
 
         // Retrieve scores and thresholds
-        int player1Score = state.getScore("Player1");
-        int player2Score = state.getScore("Player2");
+        int player1Score = state.getScore(0);
+        int player2Score = state.getScore(1);
         int winningScore = state.getWinningScoreThreshold();
         int currentTurn = state.getCurrentTurn();
         int maxTurns = state.getMaxTurns();
@@ -104,6 +146,83 @@ public class GameConditions {
         return GameOutcome.ONGOING;
     }
 
+    /**
+     * Evaluates the outcome for any number of players, using the same rules as checkGameOutcome:
+     * once the top score reaches the winning threshold, or the turn limit is reached, the single
+     * leader wins and a tie at the top is a draw.
+     *
+     * @param state The current GameState object.
+     * @return The winning player's index, OUTCOME_DRAW or OUTCOME_ONGOING.
+     */
+    public static int evaluateOutcome(GameState state) {
+        Objects.requireNonNull(state, "Game state cannot be null.");
+        return evaluate(state.playerScores, 0, state.playerScores.length, state.getCurrentTurn(),
+                state.getMaxTurns(), state.getWinningScoreThreshold());
+    }
+
+    /**
+     * Evaluates many matches at once. All arrays are parallel, indexed by match; scores are stored
+     * match-major, so the scores of match m are scores[m * playerCount .. m * playerCount + playerCount - 1].
+     * Nothing is allocated, so this can run every tick over tens of thousands of matches.
+     *
+     * @param matchCount Number of matches to evaluate.
+     * @param playerCount Number of players in every match.
+     * @param scores Scores of all matches, match-major.
+     * @param currentTurns Current turn of each match.
+     * @param maxTurns Turn limit of each match.
+     * @param winningScoreThresholds Winning score of each match.
+     * @param outcomes Receives the outcome of each match: the winning player's index, OUTCOME_DRAW or OUTCOME_ONGOING.
+     * @throws IllegalArgumentException if playerCount is not positive or an array is too short.
+     */
+    public static void evaluateOutcomes(int matchCount, int playerCount, int[] scores, int[] currentTurns,
+                                        int[] maxTurns, int[] winningScoreThresholds, int[] outcomes) {
+        if (playerCount <= 0) {
+            throw new IllegalArgumentException("Player count must be positive.");
+        }
+        if ((long) matchCount * playerCount > scores.length || matchCount > currentTurns.length
+                || matchCount > maxTurns.length || matchCount > winningScoreThresholds.length
+                || matchCount > outcomes.length) {
+            throw new IllegalArgumentException("Arrays are too short for " + matchCount + " matches.");
+        }
+        if (playerCount == 2) {
+            // Most matches are head-to-head; avoid the inner loop
+            for (int m = 0; m < matchCount; m++) {
+                int a = scores[2 * m];
+                int b = scores[2 * m + 1];
+                int top = Math.max(a, b);
+                boolean decided = top >= winningScoreThresholds[m] || currentTurns[m] >= maxTurns[m];
+                outcomes[m] = !decided ? OUTCOME_ONGOING : a > b ? 0 : b > a ? 1 : OUTCOME_DRAW;
+            }
+            return;
+        }
+        for (int m = 0; m < matchCount; m++) {
+            outcomes[m] = evaluate(scores, m * playerCount, playerCount, currentTurns[m], maxTurns[m],
+                    winningScoreThresholds[m]);
+        }
+    }
+
+    // Shared rule for one match whose scores are scores[offset .. offset + playerCount - 1].
+    private static int evaluate(int[] scores, int offset, int playerCount, int currentTurn, int maxTurns,
+                                int winningScore) {
+        int leader = 0;
+        int top = scores[offset];
+        boolean tied = false;
+        for (int p = 1; p < playerCount; p++) {
+            int score = scores[offset + p];
+            if (score > top) {
+                top = score;
+                leader = p;
+                tied = false;
+            } else if (score == top) {
+                tied = true;
+            }
+        }
+        if (top >= winningScore || currentTurn >= maxTurns) {
+            return tied ? OUTCOME_DRAW : leader;
+        }
+        return OUTCOME_ONGOING;
+    }
+
     // Example usage (not part of the required output, but for context)
     public static void main(String[] args) {
         // Game 1: Ongoing
@@ -137,5 +256,87 @@ public class GameConditions {
         // Game 8: Simultaneous win threshold reached, tied score
         GameState state8 = new GameState(20, 20, 8, 10, 20, "Player1");
         System.out.println("State 8 Outcome: " + checkGameOutcome(state8)); // DRAW
+
+        // Game 9: Four players, Player 3 leads past the threshold
+        GameState state9 = new GameState(new int[] {12, 19, 23, 8}, 6, 10, 20, "Player4");
+        System.out.println("State 9 Outcome: Player" + (evaluateOutcome(state9) + 1)); // Player3
+
+        // Batch evaluation: many four-player matches per tick
+        int matches = 50_000;
+        int players = 4;
+        Random random = new Random(42);
+        int[] scores = new int[matches * players];
+        int[] currentTurns = new int[matches];
+        int[] maxTurns = new int[matches];
+        int[] thresholds = new int[matches];
+        int[] outcomes = new int[matches];
+        for (int m = 0; m < matches; m++) {
+            for (int p = 0; p < players; p++) {
+                scores[m * players + p] = random.nextInt(25);
+            }
+            currentTurns[m] = random.nextInt(12);
+            maxTurns[m] = 10;
+            thresholds[m] = 20;
+        }
+        for (int warmup = 0; warmup < 200; warmup++) {
+            evaluateOutcomes(matches, players, scores, currentTurns, maxTurns, thresholds, outcomes);
+        }
+        int ticks = 200;
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            evaluateOutcomes(matches, players, scores, currentTurns, maxTurns, thresholds, outcomes);
+        }
+        long nanos = System.nanoTime() - start;
+        int[] histogram = new int[players + 2];
+        for (int outcome : outcomes) {
+            histogram[outcome + 2]++; // ONGOING, DRAW, then the winners
+        }
+        System.out.printf("Batch: %d matches of %d players in %.1f µs per tick; ongoing/draw/winners: %s%n",
+                matches, players, nanos / 1e3 / ticks, Arrays.toString(histogram));
+
+        System.out.println("Two-player mismatches in 100000 random states: " + countTwoPlayerMismatches(100_000));
+    }
+
+    // Cross-checks the batch fast path and evaluateOutcome against checkGameOutcome on random two-player states.
+    private static int countTwoPlayerMismatches(int matches) {
+        Random random = new Random(9);
+        int[] scores = new int[matches * 2];
+        int[] currentTurns = new int[matches];
+        int[] maxTurns = new int[matches];
+        int[] thresholds = new int[matches];
+        int[] outcomes = new int[matches];
+        for (int m = 0; m < matches; m++) {
+            scores[2 * m] = random.nextInt(30);
+            scores[2 * m + 1] = random.nextInt(30);
+            currentTurns[m] = random.nextInt(12);
+            maxTurns[m] = 10;
+            thresholds[m] = random.nextInt(30);
+        }
+        evaluateOutcomes(matches, 2, scores, currentTurns, maxTurns, thresholds, outcomes);
+
+        int mismatches = 0;
+        for (int m = 0; m < matches; m++) {
+            GameState state = new GameState(scores[2 * m], scores[2 * m + 1], currentTurns[m], maxTurns[m],
+                    thresholds[m], "Player1");
+            int expected;
+            switch (checkGameOutcome(state)) {
+                case PLAYER_1_WINS:
+                    expected = 0;
+                    break;
+                case PLAYER_2_WINS:
+                    expected = 1;
+                    break;
+                case DRAW:
+                    expected = OUTCOME_DRAW;
+                    break;
+                default:
+                    expected = OUTCOME_ONGOING;
+                    break;
+            }
+            if (outcomes[m] != expected || evaluateOutcome(state) != expected) {
+                mismatches++;
+            }
+        }
+        return mismatches;
     }
 }
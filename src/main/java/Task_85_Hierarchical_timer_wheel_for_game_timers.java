@@ -0,0 +1,274 @@
+import java.util.Random;
+
+/**
+ * A hierarchical timer wheel driven by the game tick.
+ *
+ * Timers live in four levels of 64 slots (6 bits of the deadline per level, so 2^24 ticks are
+ * covered directly; later deadlines wait in an overflow list). A timer is placed in the level of
+ * the highest 6-bit group in which its deadline differs from the current tick, and is moved down
+ * a level when the wheel reaches that group. Each slot is an intrusive doubly linked list, so
+ * schedule and cancel are O(1), and tick() only touches the slots whose turn it is.
+ *
+ * Timers fire exactly on their deadline tick, in the thread calling tick(). The wheel is not
+ * thread-safe; it is meant to be owned by the game loop.
+ */
+public final class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int OVERFLOW = LEVELS * SLOTS; // Bucket index of the overflow list
+    private static final long RANGE_MASK = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickDurationMillis;
+    private final Timeout[] buckets = new Timeout[OVERFLOW + 1];
+    private long currentTick;
+    private int pendingCount;
+
+    /**
+     * A scheduled callback. Returned by schedule() so the caller can cancel it.
+     */
+    public static final class Timeout {
+        private final TimerWheel wheel;
+        private final long deadline;
+        private final Runnable action;
+        private Timeout prev;
+        private Timeout next;
+        private int bucket = -1; // -1 once fired or cancelled
+
+        private Timeout(TimerWheel wheel, long deadline, Runnable action) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.action = action;
+        }
+
+        /**
+         * Cancels the timer in O(1).
+         *
+         * @return true if the timer was pending, false if it had already fired or been cancelled.
+         */
+        public boolean cancel() {
+            if (bucket < 0) {
+                return false;
+            }
+            wheel.unlink(this);
+            wheel.pendingCount--;
+            return true;
+        }
+
+        public boolean isPending() {
+            return bucket >= 0;
+        }
+
+        /** The tick on which the timer fires. */
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * @param tickDurationMillis The game time one tick represents, used by millisToTicks.
+     * @throws IllegalArgumentException if tickDurationMillis is not positive.
+     */
+    public TimerWheel(long tickDurationMillis) {
+        if (tickDurationMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive.");
+        }
+        this.tickDurationMillis = tickDurationMillis;
+    }
+
+    /**
+     * Schedules a callback to run on the tick delayTicks from now.
+     *
+     * @param delayTicks How many ticks from now; must be at least 1.
+     * @param action The callback, run by tick().
+     * @return A handle that can cancel the timer.
+     * @throws IllegalArgumentException if delayTicks is less than 1.
+     */
+    public Timeout schedule(long delayTicks, Runnable action) {
+        if (delayTicks < 1) {
+            throw new IllegalArgumentException("Delay must be at least one tick: " + delayTicks);
+        }
+        Timeout timeout = new Timeout(this, currentTick + delayTicks, action);
+        place(timeout);
+        pendingCount++;
+        return timeout;
+    }
+
+    /**
+     * Converts a duration to ticks, rounding up so a timer never fires early.
+     * Returns at least 1.
+     */
+    public long millisToTicks(long millis) {
+        return Math.max(1, (millis + tickDurationMillis - 1) / tickDurationMillis);
+    }
+
+    /**
+     * Advances the wheel by one tick and runs every timer whose deadline is the new tick.
+     *
+     * @return The number of timers fired.
+     */
+    public int tick() {
+        long now = ++currentTick;
+        // Cascade: when a level's lower groups wrap to zero, its current slot moves down
+        for (int level = 1; level < LEVELS; level++) {
+            if ((now & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                break;
+            }
+            cascade(level * SLOTS + (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK));
+        }
+        if ((now & RANGE_MASK) == 0) {
+            cascade(OVERFLOW);
+        }
+
+        int bucket = (int) (now & SLOT_MASK);
+        int fired = 0;
+        Timeout timeout;
+        // Pop one at a time, so callbacks may schedule or cancel other timers safely
+        while ((timeout = buckets[bucket]) != null) {
+            unlink(timeout);
+            pendingCount--;
+            fired++;
+            timeout.action.run();
+        }
+        return fired;
+    }
+
+    /**
+     * Advances the wheel by the given number of ticks.
+     *
+     * @return The number of timers fired.
+     */
+    public int advance(long ticks) {
+        int fired = 0;
+        for (long i = 0; i < ticks; i++) {
+            fired += tick();
+        }
+        return fired;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public long getTickDurationMillis() {
+        return tickDurationMillis;
+    }
+
+    /** The number of timers that have neither fired nor been cancelled. */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    private void cascade(int bucket) {
+        Timeout timeout = buckets[bucket];
+        buckets[bucket] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    // Picks the level from the highest 6-bit group in which the deadline differs from now.
+    private void place(Timeout timeout) {
+        long diff = timeout.deadline ^ currentTick;
+        int level = diff == 0 ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+        int bucket = level >= LEVELS
+                ? OVERFLOW
+                : level * SLOTS + (int) ((timeout.deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        Timeout head = buckets[bucket];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        timeout.bucket = bucket;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+    /**
+     * Demonstrates exact firing on random deadlines, and thousands of sessions whose power-ups
+     * and round limits are expired by the wheel instead of being polled every tick.
+     */
+    public static void main(String[] args) {
+        TimerWheel wheel = new TimerWheel(16); // About 60 ticks per second
+        Random random = new Random(7);
+        int timers = 200_000;
+        long[] firedAt = new long[timers];
+        long[] deadlines = new long[timers];
+        Timeout[] handles = new Timeout[timers];
+        for (int i = 0; i < timers; i++) {
+            final int id = i;
+            // Mostly short delays, some beyond the 2^24-tick range of the wheel levels
+            long delay = i % 1000 == 0 ? (1L << 24) + random.nextInt(100_000) : 1 + random.nextInt(300_000);
+            deadlines[i] = delay;
+            handles[i] = wheel.schedule(delay, () -> firedAt[id] = wheel.getCurrentTick());
+        }
+        int cancelled = 0;
+        for (int i = 1; i < timers; i += 3) {
+            if (handles[i].cancel()) {
+                cancelled++;
+            }
+        }
+        long start = System.nanoTime();
+        long ticks = (1L << 24) + 100_000;
+        int fired = wheel.advance(ticks);
+        long nanos = System.nanoTime() - start;
+        int wrong = 0;
+        for (int i = 0; i < timers; i++) {
+            long expected = i % 3 == 1 ? 0 : deadlines[i];
+            if (firedAt[i] != expected) {
+                wrong++;
+            }
+        }
+        System.out.printf("%d timers, %d cancelled, %d fired over %d ticks in %.1f ms (%.1f ns/tick), wrong tick: %d%n",
+                timers, cancelled, fired, ticks, nanos / 1e6, (double) nanos / ticks, wrong);
+
+        // Sessions: power pellets and round time limits registered on one shared wheel
+        TimerWheel gameWheel = new TimerWheel(16);
+        int sessions = 10_000;
+        GameScoreManager[] managers = new GameScoreManager[sessions];
+        GameTimer[] roundTimers = new GameTimer[sessions];
+        int[] roundsOver = new int[1];
+        for (int s = 0; s < sessions; s++) {
+            managers[s] = new GameScoreManager(gameWheel);
+            roundTimers[s] = new GameTimer();
+            roundTimers[s].setTimeLimit(gameWheel, 120_000, () -> roundsOver[0]++);
+            roundTimers[s].start();
+        }
+        start = System.nanoTime();
+        int ticksPerSecond = 60;
+        int poweredAtEnd = 0;
+        for (int t = 0; t < 130 * ticksPerSecond; t++) {
+            for (int e = 0; e < 50; e++) { // A few sessions eat a pellet every tick
+                managers[random.nextInt(sessions)].eatPowerPellet();
+            }
+            gameWheel.tick();
+        }
+        nanos = System.nanoTime() - start;
+        for (GameScoreManager manager : managers) {
+            if (manager.isPlayerPoweredUp()) {
+                poweredAtEnd++;
+            }
+        }
+        System.out.printf("%d sessions, 130 s of game ticks in %.1f ms; rounds over: %d, powered up at end: %d%n",
+                sessions, nanos / 1e6, roundsOver[0], poweredAtEnd);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * The time source of time-dependent game classes (GameTimer, GameScoreManager).
+ * Production code uses the system clock; tests and headless simulations use a VirtualClock,
+ * which only moves when advanced, so game time can be fast-forwarded and runs are repeatable.
+ */
+public interface GameClock {
+
+    /**
+     * A monotonic time in nanoseconds for measuring durations (like System.nanoTime()).
+     */
+    long nanoTime();
+
+    /**
+     * The current time in milliseconds (like System.currentTimeMillis()).
+     */
+    long currentTimeMillis();
+
+    /**
+     * Returns the clock backed by System.nanoTime() and System.currentTimeMillis().
+     */
+    static GameClock system() {
+        return SystemGameClock.INSTANCE;
+    }
+}
+
+// The real clock; stateless, so a single instance is shared.
+enum SystemGameClock implements GameClock {
+    INSTANCE;
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
+
+/**
+ * A manually advanced clock. Time stands still until advance is called, so a 10-second
+ * power-up can be expired with advanceMillis(10_000) instead of sleeping.
+ * Not thread-safe; advance it from the thread that runs the simulation.
+ */
+final class VirtualClock implements GameClock {
+    private final long epochMillis;
+    private long nanos;
+
+    /** Starts at time zero. */
+    VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * @param epochMillis The value currentTimeMillis() returns before the clock is advanced.
+     */
+    VirtualClock(long epochMillis) {
+        this.epochMillis = epochMillis;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanos;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return epochMillis + nanos / 1_000_000;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param deltaNanos The amount of time in nanoseconds.
+     * @throws IllegalArgumentException if deltaNanos is negative.
+     */
+    void advanceNanos(long deltaNanos) {
+        if (deltaNanos < 0) {
+            throw new IllegalArgumentException("A clock cannot go backwards.");
+        }
+        nanos += deltaNanos;
+    }
+
+    void advanceMillis(long deltaMillis) {
+        advanceNanos(Math.multiplyExact(deltaMillis, 1_000_000L));
+    }
+}
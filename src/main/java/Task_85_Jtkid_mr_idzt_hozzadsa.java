@@ -1,27 +1,47 @@
 public class GameTimer {
+    private final GameClock clock;
     private long startTimeNanos;
     private long elapsedTimeNanos;
     private boolean isRunning;
+    private TimerWheel limitWheel;
+    private long limitMillis;
+    private Runnable onLimitReached;
+    private TimerWheel.Timeout limitExpiry;
+    private boolean limitReported;
 
     public GameTimer() {
+        this(GameClock.system());
+    }
+
+    /**
+     * Creates a timer that reads the given clock, e.g. a VirtualClock for simulations.
+     *
+     * @param clock The time source.
+     */
+    public GameTimer(GameClock clock) {
+        this.clock = clock;
         reset();
     }
 
     public void start() {
         if (!isRunning) {
-            startTimeNanos = System.nanoTime();
+            startTimeNanos = clock.nanoTime();
             isRunning = true;
+            scheduleLimit();
         }
     }
 
     public void stop() {
         if (isRunning) {
-            elapsedTimeNanos += (System.nanoTime() - startTimeNanos);
+            elapsedTimeNanos += (clock.nanoTime() - startTimeNanos);
             isRunning = false;
+            cancelLimit();
         }
     }
 
     public void reset() {
+        cancelLimit();
+        limitReported = false;
         startTimeNanos = 0;
         elapsedTimeNanos = 0;
         isRunning = false;
@@ -35,7 +55,7 @@ public class GameTimer {
      */
     public long getElapsedTimeMillis() {
         if (isRunning) {
-            return (elapsedTimeNanos + (System.nanoTime() - startTimeNanos)) / 1_000_000;
+            return (elapsedTimeNanos + (clock.nanoTime() - startTimeNanos)) / 1_000_000;
         } else {
             return elapsedTimeNanos / 1_000_000;
         }
@@ -51,6 +71,70 @@ public class GameTimer {
         return getElapsedTimeMillis() / 1000.0;
     }
 
+    /**
+     * Restores a previously saved elapsed time (e.g. when loading a saved game).
+     * The timer is left stopped; call start() to continue counting from this value.
+     *
+     * @param elapsedTimeMillis The elapsed time in milliseconds.
+     * @throws IllegalArgumentException if elapsedTimeMillis is negative.
+     */
+    public void restoreElapsedTimeMillis(long elapsedTimeMillis) {
+        if (elapsedTimeMillis < 0) {
+            throw new IllegalArgumentException("Elapsed time cannot be negative.");
+        }
+        cancelLimit();
+        limitReported = false;
+        startTimeNanos = 0;
+        elapsedTimeNanos = elapsedTimeMillis * 1_000_000;
+        isRunning = false;
+    }
+
+    /**
+     * Registers a time limit (e.g. a round timer) on a timer wheel instead of polling the elapsed time.
+     * While the timer runs, the callback is scheduled for the tick on which the remaining time runs out;
+     * stop() cancels it and start() schedules it again for the time still left.
+     * If the elapsed time is already past the limit, the callback runs on the next tick.
+     * reset() and restoreElapsedTimeMillis() re-arm the limit, so it can be reported again.
+     *
+     * @param wheel The game's timer wheel.
+     * @param limitMillis The time limit in milliseconds of elapsed time.
+     * @param onLimitReached Called once, from the wheel's tick(), when the limit is reached.
+     * @throws IllegalArgumentException if limitMillis is not positive.
+     */
+    public void setTimeLimit(TimerWheel wheel, long limitMillis, Runnable onLimitReached) {
+        if (limitMillis <= 0) {
+            throw new IllegalArgumentException("Time limit must be positive.");
+        }
+        cancelLimit();
+        this.limitReported = false;
+        this.limitWheel = wheel;
+        this.limitMillis = limitMillis;
+        this.onLimitReached = onLimitReached;
+        if (isRunning) {
+            scheduleLimit();
+        }
+    }
+
+    private void scheduleLimit() {
+        if (limitWheel == null || limitReported) {
+            return;
+        }
+        // millisToTicks returns at least 1, so a limit already passed fires on the next tick
+        long remainingMillis = Math.max(0, limitMillis - getElapsedTimeMillis());
+        limitExpiry = limitWheel.schedule(limitWheel.millisToTicks(remainingMillis), () -> {
+            limitExpiry = null;
+            limitReported = true;
+            onLimitReached.run();
+        });
+    }
+
+    private void cancelLimit() {
+        if (limitExpiry != null) {
+            limitExpiry.cancel();
+            limitExpiry = null;
+        }
+    }
+
     public boolean isRunning() {
         return isRunning;
     }
@@ -0,0 +1,202 @@
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Előre generált, találgatás nélkül megoldható táblák készlete nehézségi szintenként.
+ *
+ * Szintenként egy korlátos sorban legfeljebb readyPerLevel kész tábla vár. Háttérszálak tartják
+ * tele a sorokat: minden kivétel után egy új tábla generálása indul. Új játéknál így a tábla
+ * elkészítése egyetlen sorból vétel. Ha a sor üres (pl. gyors egymásutáni új játékoknál),
+ * a kérő szálon, szinkron módon generálunk, az összes magot használó generátorral.
+ *
+ * Szintenként számoljuk a találatokat (kész tábla a sorból) és a hiányokat (szinkron generálás),
+ * valamint az új játék kérésének összesített idejét mindkét esetben.
+ */
+public class BoardPool implements AutoCloseable {
+
+    private final int readyPerLevel;
+    private final ExecutorService workers;
+    private final NoGuessBoardGenerator backgroundGenerator = new NoGuessBoardGenerator(1); // Szálanként sorosan
+    private final NoGuessBoardGenerator syncGenerator = new NoGuessBoardGenerator(); // Hiánynál minden mag
+    private final AtomicLong nextSeed;
+    private final Map<DifficultyManager.Difficulty, Level> levels = new EnumMap<>(DifficultyManager.Difficulty.class);
+
+    // Egy nehézségi szint sora és számlálói.
+    private static final class Level {
+        final ArrayBlockingQueue<NoGuessBoard> ready;
+        final AtomicInteger inFlight = new AtomicInteger(); // Futó vagy várakozó háttérgenerálások
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong hitNanos = new AtomicLong();
+        final AtomicLong missNanos = new AtomicLong();
+
+        Level(int capacity) {
+            this.ready = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    /**
+     * Létrehozza a készletet, és azonnal elindítja a feltöltést minden szintre.
+     *
+     * @param readyPerLevel Szintenként ennyi kész táblát tartunk.
+     * @param workerThreads A háttérszálak száma.
+     * @param seed A táblák seedjeinek kezdőértéke; minden tábla új seedet kap.
+     * @throws IllegalArgumentException Ha readyPerLevel vagy workerThreads nem pozitív.
+     */
+    public BoardPool(int readyPerLevel, int workerThreads, long seed) {
+        if (readyPerLevel <= 0 || workerThreads <= 0) {
+            throw new IllegalArgumentException("A készlet mérete és a szálak száma pozitív kell legyen.");
+        }
+        this.readyPerLevel = readyPerLevel;
+        this.nextSeed = new AtomicLong(seed);
+        this.workers = Executors.newFixedThreadPool(workerThreads, backgroundThreads());
+        for (DifficultyManager.Difficulty difficulty : DifficultyManager.Difficulty.values()) {
+            levels.put(difficulty, new Level(readyPerLevel));
+        }
+        for (DifficultyManager.Difficulty difficulty : DifficultyManager.Difficulty.values()) {
+            refill(difficulty);
+        }
+    }
+
+    // Alacsony prioritású démonszálak, hogy a generálás ne vegye el az időt a játéktól.
+    private static ThreadFactory backgroundThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "board-pool-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        };
+    }
+
+    /**
+     * Tábla egy új játékhoz. Ha van kész tábla, azonnal visszaadja, különben szinkron generál.
+     *
+     * @param difficulty A nehézségi szint.
+     * @return A tábla.
+     */
+    public NoGuessBoard take(DifficultyManager.Difficulty difficulty) {
+        long start = System.nanoTime();
+        Level level = levels.get(difficulty);
+        NoGuessBoard board = level.ready.poll();
+        if (board != null) {
+            level.hits.incrementAndGet();
+            level.hitNanos.addAndGet(System.nanoTime() - start);
+        } else {
+            board = syncGenerator.generate(difficulty, nextSeed.getAndIncrement());
+            level.misses.incrementAndGet();
+            level.missNanos.addAndGet(System.nanoTime() - start);
+        }
+        refill(difficulty); // A pótlás a háttérben fut, a kérést nem késlelteti
+        return board;
+    }
+
+    // Annyi háttérgenerálást indít, hogy a kész és a folyamatban lévő táblák együtt kitöltsék a sort.
+    private void refill(DifficultyManager.Difficulty difficulty) {
+        Level level = levels.get(difficulty);
+        while (true) {
+            int inFlight = level.inFlight.get();
+            if (level.ready.size() + inFlight >= readyPerLevel) {
+                return;
+            }
+            if (!level.inFlight.compareAndSet(inFlight, inFlight + 1)) {
+                continue;
+            }
+            try {
+                workers.execute(() -> generateInto(difficulty, level));
+            } catch (RejectedExecutionException e) {
+                level.inFlight.decrementAndGet(); // A készlet le van zárva
+                return;
+            }
+        }
+    }
+
+    private void generateInto(DifficultyManager.Difficulty difficulty, Level level) {
+        try {
+            level.ready.offer(backgroundGenerator.generate(difficulty, nextSeed.getAndIncrement()));
+        } finally {
+            level.inFlight.decrementAndGet();
+        }
+    }
+
+    public int getReadyCount(DifficultyManager.Difficulty difficulty) {
+        return levels.get(difficulty).ready.size();
+    }
+
+    /** Hány kérést szolgáltunk ki kész táblával. */
+    public long getHits(DifficultyManager.Difficulty difficulty) {
+        return levels.get(difficulty).hits.get();
+    }
+
+    /** Hány kérésnél kellett szinkron generálni. */
+    public long getMisses(DifficultyManager.Difficulty difficulty) {
+        return levels.get(difficulty).misses.get();
+    }
+
+    /** A kész táblával kiszolgált kérések átlagos ideje mikroszekundumban (0, ha nem volt ilyen). */
+    public double getAverageHitMicros(DifficultyManager.Difficulty difficulty) {
+        Level level = levels.get(difficulty);
+        long hits = level.hits.get();
+        return hits == 0 ? 0 : level.hitNanos.get() / 1e3 / hits;
+    }
+
+    /** A szinkron generált táblák átlagos ideje mikroszekundumban (0, ha nem volt ilyen). */
+    public double getAverageMissMicros(DifficultyManager.Difficulty difficulty) {
+        Level level = levels.get(difficulty);
+        long misses = level.misses.get();
+        return misses == 0 ? 0 : level.missNanos.get() / 1e3 / misses;
+    }
+
+    /** Egysoros összesítés szintenként (találat/hiány, átlagos idő, kész táblák). */
+    public String metricsSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (DifficultyManager.Difficulty difficulty : DifficultyManager.Difficulty.values()) {
+            sb.append(String.format("%-7s találat %d (%.1f µs), hiány %d (%.1f µs), kész %d%n", difficulty,
+                    getHits(difficulty), getAverageHitMicros(difficulty), getMisses(difficulty),
+                    getAverageMissMicros(difficulty), getReadyCount(difficulty)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Leállítja a háttérszálakat; a folyamatban lévő generálások eredménye elvész.
+     * A take ezután is működik, de csak szinkron generálással.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Demo: "Új játék" kattintások a feltöltött készletből, majd egy sorozat, amely kiüríti a sort.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        try (BoardPool pool = new BoardPool(4, threads, 2024L)) {
+            long start = System.nanoTime();
+            while (pool.getReadyCount(DifficultyManager.Difficulty.INSANE) < 4
+                    || pool.getReadyCount(DifficultyManager.Difficulty.HARD) < 4) {
+                Thread.sleep(10);
+            }
+            System.out.printf("Feltöltve %.0f ms alatt (%d háttérszál)%n", (System.nanoTime() - start) / 1e6, threads);
+
+            // Ritkás kattintások: a háttérszálak közben pótolják a sort
+            for (int game = 0; game < 10; game++) {
+                pool.take(DifficultyManager.Difficulty.HARD).toMinefield();
+                Thread.sleep(100);
+            }
+            // Gyors sorozat: a sor kiürül, a további kérések szinkron generálnak
+            for (int game = 0; game < 12; game++) {
+                pool.take(DifficultyManager.Difficulty.INSANE);
+            }
+            System.out.print(pool.metricsSummary());
+        }
+    }
+}
@@ -0,0 +1,657 @@
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Találgatás nélkül megoldható aknakereső táblák generátora.
+ *
+ * A jelölt táblákat a BombPlacementLogic seedelt elhelyezése adja (az első kattintás 3x3-as
+ * környezete aknamentes), majd a MinesweeperSolver tiszta logikával megpróbálja megoldani az első
+ * kattintástól. Csak az a tábla fogadható el, amelyen a megoldó egyetlen találgatás nélkül
+ * minden biztonságos cellát felfed. A jelölteket párhuzamosan, az összes magon ellenőrizzük.
+ *
+ * A generálás determinisztikus: egy seedből mindig ugyanaz a tábla lesz, mert kötegenként a
+ * legkisebb sorszámú sikeres jelöltet választjuk, függetlenül attól, melyik szál végez előbb.
+ */
+public class NoGuessBoardGenerator {
+
+    private static final int MAX_ATTEMPTS = 1_000_000;
+
+    private final int batchSize;
+
+    public NoGuessBoardGenerator() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param batchSize Ennyi jelöltet ellenőrzünk egyszerre párhuzamosan.
+     */
+    public NoGuessBoardGenerator(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("A köteg mérete pozitív kell legyen.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * A nehézségi szinthez tartozó tábla: {sorok, oszlopok, aknák}.
+     */
+    static int[] boardSpec(DifficultyManager.Difficulty difficulty) {
+        switch (difficulty) {
+            case EASY:
+                return new int[]{9, 9, 10};
+            case NORMAL:
+                return new int[]{16, 16, 40};
+            case HARD:
+                return new int[]{16, 30, 99};
+            case INSANE:
+                return new int[]{24, 30, 150};
+            default:
+                throw new IllegalArgumentException("Ismeretlen nehézségi szint: " + difficulty);
+        }
+    }
+
+    /**
+     * Generál egy találgatás nélkül megoldható táblát. Az első kattintás a tábla közepe.
+     *
+     * @param difficulty A nehézségi szint.
+     * @param seed A generálás seedje; azonos seedből azonos tábla lesz.
+     * @return A tábla és a hozzá tartozó első kattintás.
+     * @throws IllegalStateException Ha MAX_ATTEMPTS jelölt közül egyik sem megoldható.
+     */
+    public NoGuessBoard generate(DifficultyManager.Difficulty difficulty, long seed) {
+        int[] spec = boardSpec(difficulty);
+        int rows = spec[0];
+        int cols = spec[1];
+        int mines = spec[2];
+        int startRow = rows / 2;
+        int startCol = cols / 2;
+
+        for (int base = 0; base < MAX_ATTEMPTS; base += batchSize) {
+            final int first = base;
+            // Kötegenként a legkisebb sorszámú sikeres jelölt nyer, így az eredmény nem függ a szálak ütemezésétől
+            int found = IntStream.range(0, batchSize)
+                    .parallel()
+                    .filter(i -> isNoGuess(rows, cols, mines, candidateSeed(seed, first + i), startRow, startCol))
+                    .min()
+                    .orElse(-1);
+            if (found >= 0) {
+                long boardSeed = candidateSeed(seed, first + found);
+                BitGameBoard bombs = new BitGameBoard(rows, cols);
+                BombPlacementLogic.placeBombs(bombs, mines, boardSeed, startRow, startCol, 1);
+                return new NoGuessBoard(difficulty, bombs, startRow, startCol, boardSeed, first + found + 1);
+            }
+        }
+        throw new IllegalStateException("Nem található találgatás nélkül megoldható tábla: " + difficulty);
+    }
+
+    // A jelöltek seedjei a generálás seedjéből, keverve, hogy a szomszédos sorszámok ne korreláljanak.
+    private static long candidateSeed(long seed, int attempt) {
+        long z = seed + (attempt + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static boolean isNoGuess(int rows, int cols, int mines, long seed, int startRow, int startCol) {
+        BitGameBoard bombs = new BitGameBoard(rows, cols);
+        BombPlacementLogic.placeBombs(bombs, mines, seed, startRow, startCol, 1);
+        return new MinesweeperSolver(bombs).solve(startRow * cols + startCol);
+    }
+
+    /**
+     * Mérés: nehézségi szintenként hány megoldható tábla készül másodpercenként az összes magon.
+     * Használat: java NoGuessBoardGenerator [másodperc szintenként]
+     */
+    public static void main(String[] args) {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 2.0;
+        NoGuessBoardGenerator generator = new NoGuessBoardGenerator();
+        System.out.println("Magok: " + Runtime.getRuntime().availableProcessors());
+
+        for (DifficultyManager.Difficulty difficulty : DifficultyManager.Difficulty.values()) {
+            int[] spec = boardSpec(difficulty);
+            generator.generate(difficulty, -1L); // Bemelegítés
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos((long) (seconds * 1000));
+            long start = System.nanoTime();
+            int boards = 0;
+            long attempts = 0;
+            long seed = 0;
+            while (System.nanoTime() < deadline) {
+                NoGuessBoard board = generator.generate(difficulty, seed++);
+                boards++;
+                attempts += board.getAttempts();
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-7s %dx%d, %d akna: %.1f tábla/s, sikerarány %.1f%%%n",
+                    difficulty, spec[0], spec[1], spec[2], boards / elapsed, 100.0 * boards / attempts);
+        }
+
+        NoGuessBoard example = generator.generate(DifficultyManager.Difficulty.EASY, 2024L);
+        System.out.println("\nPélda (EASY, seed 2024), első kattintás: (" + example.getStartRow() + ", "
+                + example.getStartCol() + ")");
+        System.out.print(example.getBombs());
+    }
+}
+
+/**
+ * Egy generált tábla: az aknák, az első kattintás helye és a tábla saját seedje.
+ */
+final class NoGuessBoard {
+    private final DifficultyManager.Difficulty difficulty;
+    private final BitGameBoard bombs;
+    private final int startRow;
+    private final int startCol;
+    private final long seed;
+    private final int attempts;
+
+    NoGuessBoard(DifficultyManager.Difficulty difficulty, BitGameBoard bombs, int startRow, int startCol,
+                 long seed, int attempts) {
+        this.difficulty = difficulty;
+        this.bombs = bombs;
+        this.startRow = startRow;
+        this.startCol = startCol;
+        this.seed = seed;
+        this.attempts = attempts;
+    }
+
+    DifficultyManager.Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    BitGameBoard getBombs() {
+        return bombs;
+    }
+
+    int getStartRow() {
+        return startRow;
+    }
+
+    int getStartCol() {
+        return startCol;
+    }
+
+    /** A tábla seedje a BombPlacementLogic számára (a biztonságos zóna az első kattintás körül). */
+    long getSeed() {
+        return seed;
+    }
+
+    /** Hány jelöltet kellett megvizsgálni a tábláig (a párhuzamos kötegek nélkül számolva). */
+    int getAttempts() {
+        return attempts;
+    }
+
+    /** Játszható aknamező a táblából. */
+    Minefield toMinefield() {
+        Minefield field = new Minefield(bombs.getRows(), bombs.getCols());
+        int cols = bombs.getCols();
+        for (int i = bombs.nextSetBit(0); i >= 0; i = bombs.nextSetBit(i + 1)) {
+            field.addMine(i / cols, i % cols);
+        }
+        field.drainChangedCells();
+        return field;
+    }
+}
+
+/**
+ * Tiszta logikával dolgozó aknakereső megoldó. Csak a felfedett számokat használja; az aknák
+ * valódi helyét kizárólag a felfedéskor (szám kiolvasása) és a hibás következtetés ellenőrzésére nézi.
+ *
+ * Szabályok, egyre drágább sorrendben:
+ * 1. egyetlen cella: ha a hiányzó aknák száma 0, minden ismeretlen szomszéd biztonságos; ha egyenlő
+ *    az ismeretlen szomszédok számával, mind akna;
+ * 2. részhalmaz: ha A ismeretlen szomszédai B ismeretlen szomszédainak részhalmazát alkotják,
+ *    a különbségben (B hiányzó - A hiányzó) akna van;
+ * 3. a határ (számmal szomszédos ismeretlen cellák) összes megoldásának felsorolása, független
+ *    komponensekre bontva; ami minden megoldásban akna vagy mindben biztonságos, az eldőlt;
+ * 4. a hátralévő aknák száma: 0 esetén minden ismeretlen biztonságos, ha pedig annyi, ahány
+ *    ismeretlen cella maradt, mind akna.
+ */
+final class MinesweeperSolver {
+    private static final byte UNKNOWN = 0;
+    private static final byte REVEALED = 1;
+    private static final byte FLAGGED = 2;
+
+    private static final int MAX_COMPONENT_VARS = 48;
+    private static final int MAX_ENUMERATION_NODES = 200_000;
+
+    private final int rows;
+    private final int cols;
+    private final int cellCount;
+    private final BitGameBoard mines;
+    private final byte[] counts;
+    private final byte[] state;
+    private final int[] neighbors;      // Cellánként 8 hely, -1 a táblán kívül
+    private int safeRemaining;           // Még fel nem fedett biztonságos cellák
+    private int minesRemaining;          // Még meg nem jelölt aknák
+    private final IntDeque stack = new IntDeque(256);
+
+    // A felsoroláshoz újrahasznosított tömbök
+    private final boolean[] onFrontier;  // Cella a határon van-e
+    private final int[] varIndex;        // Cella -> változó sorszám az aktuális komponensben, vagy -1
+    private final int[] parent;          // Unió-keresés szülőtömb a komponensekhez
+    private int enumerationNodes;
+
+    MinesweeperSolver(BitGameBoard mines) {
+        this.rows = mines.getRows();
+        this.cols = mines.getCols();
+        this.cellCount = rows * cols;
+        this.mines = mines;
+        this.counts = new byte[cellCount];
+        this.state = new byte[cellCount];
+        this.neighbors = new int[cellCount * 8];
+        this.onFrontier = new boolean[cellCount];
+        this.varIndex = new int[cellCount];
+        this.parent = new int[cellCount];
+        int mineTotal = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int r = cell / cols;
+            int c = cell - r * cols;
+            int k = 0;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (dr == 0 && dc == 0) {
+                        continue;
+                    }
+                    int nr = r + dr;
+                    int nc = c + dc;
+                    int neighbor = nr >= 0 && nr < rows && nc >= 0 && nc < cols ? nr * cols + nc : -1;
+                    neighbors[cell * 8 + k++] = neighbor;
+                    if (neighbor >= 0 && mines.getUnchecked(neighbor)) {
+                        counts[cell]++;
+                    }
+                }
+            }
+            if (mines.getUnchecked(cell)) {
+                mineTotal++;
+            }
+        }
+        this.minesRemaining = mineTotal;
+        this.safeRemaining = cellCount - mineTotal;
+        Arrays.fill(varIndex, -1);
+    }
+
+    /**
+     * Megoldja a táblát az első kattintástól.
+     *
+     * @param startCell Az első kattintás cellája (nem lehet akna).
+     * @return true, ha találgatás nélkül minden biztonságos cella felfedhető.
+     */
+    boolean solve(int startCell) {
+        if (mines.getUnchecked(startCell)) {
+            return false;
+        }
+        reveal(startCell);
+        while (safeRemaining > 0) {
+            if (applySingleCellRules() || applySubsetRules() || enumerateFrontier() || applyMineCountRule()) {
+                continue;
+            }
+            return false; // Elakadt: csak találgatással lehetne továbblépni
+        }
+        return true;
+    }
+
+    private boolean applySingleCellRules() {
+        boolean progress = false;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (state[cell] != REVEALED || counts[cell] == 0) {
+                continue;
+            }
+            int unknown = 0;
+            int flagged = 0;
+            for (int k = 0; k < 8; k++) {
+                int n = neighbors[cell * 8 + k];
+                if (n >= 0) {
+                    if (state[n] == UNKNOWN) {
+                        unknown++;
+                    } else if (state[n] == FLAGGED) {
+                        flagged++;
+                    }
+                }
+            }
+            if (unknown == 0) {
+                continue;
+            }
+            int missing = counts[cell] - flagged;
+            if (missing == 0 || missing == unknown) {
+                for (int k = 0; k < 8; k++) {
+                    int n = neighbors[cell * 8 + k];
+                    if (n >= 0 && state[n] == UNKNOWN) {
+                        if (missing == 0) {
+                            reveal(n);
+                        } else {
+                            flag(n);
+                        }
+                    }
+                }
+                progress = true;
+            }
+        }
+        return progress;
+    }
+
+    private boolean applySubsetRules() {
+        int[] unknownA = new int[8];
+        int[] unknownB = new int[8];
+        for (int a = 0; a < cellCount; a++) {
+            int sizeA = unknownNeighbors(a, unknownA);
+            if (sizeA == 0) {
+                continue;
+            }
+            int missingA = missingMines(a);
+            int ra = a / cols;
+            int ca = a - ra * cols;
+            for (int rb = Math.max(0, ra - 2); rb <= Math.min(rows - 1, ra + 2); rb++) {
+                for (int cb = Math.max(0, ca - 2); cb <= Math.min(cols - 1, ca + 2); cb++) {
+                    int b = rb * cols + cb;
+                    if (b == a) {
+                        continue;
+                    }
+                    int sizeB = unknownNeighbors(b, unknownB);
+                    if (sizeB <= sizeA || !isSubset(unknownA, sizeA, unknownB, sizeB)) {
+                        continue;
+                    }
+                    int diffMines = missingMines(b) - missingA;
+                    int diffSize = sizeB - sizeA;
+                    if (diffMines != 0 && diffMines != diffSize) {
+                        continue;
+                    }
+                    for (int i = 0; i < sizeB; i++) {
+                        int cell = unknownB[i];
+                        if (!contains(unknownA, sizeA, cell)) {
+                            if (diffMines == 0) {
+                                reveal(cell);
+                            } else {
+                                flag(cell);
+                            }
+                        }
+                    }
+                    return true; // Az állapot változott, kezdjük újra az olcsóbb szabályokkal
+                }
+            }
+        }
+        return false;
+    }
+
+    // A felfedett, számot mutató cella ismeretlen szomszédai; 0, ha a cella nem ilyen.
+    private int unknownNeighbors(int cell, int[] out) {
+        if (state[cell] != REVEALED || counts[cell] == 0) {
+            return 0;
+        }
+        int size = 0;
+        for (int k = 0; k < 8; k++) {
+            int n = neighbors[cell * 8 + k];
+            if (n >= 0 && state[n] == UNKNOWN) {
+                out[size++] = n;
+            }
+        }
+        return size;
+    }
+
+    private int missingMines(int cell) {
+        int flagged = 0;
+        for (int k = 0; k < 8; k++) {
+            int n = neighbors[cell * 8 + k];
+            if (n >= 0 && state[n] == FLAGGED) {
+                flagged++;
+            }
+        }
+        return counts[cell] - flagged;
+    }
+
+    private static boolean isSubset(int[] small, int smallSize, int[] large, int largeSize) {
+        for (int i = 0; i < smallSize; i++) {
+            if (!contains(large, largeSize, small[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A határ független komponenseinek összes megoldását felsorolja.
+    private boolean enumerateFrontier() {
+        // Határváltozók: számmal szomszédos ismeretlen cellák; a közös korlát egy komponensbe köti őket
+        IntDeque frontier = new IntDeque(64);
+        int[] unknown = new int[8];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int size = unknownNeighbors(cell, unknown);
+            for (int i = 0; i < size; i++) {
+                int n = unknown[i];
+                if (!onFrontier[n]) {
+                    onFrontier[n] = true;
+                    parent[n] = n;
+                    frontier.addLast(n);
+                }
+                union(unknown[0], n);
+            }
+        }
+
+        boolean progress = false;
+        IntDeque component = new IntDeque(64);
+        boolean[] done = new boolean[frontier.size()];
+        for (int f = 0; f < frontier.size(); f++) {
+            if (done[f]) {
+                continue;
+            }
+            int root = find(frontier.get(f));
+            component.clear();
+            for (int g = f; g < frontier.size(); g++) {
+                if (!done[g] && find(frontier.get(g)) == root) {
+                    done[g] = true;
+                    component.addLast(frontier.get(g));
+                }
+            }
+            // Egy komponens következtetései (főleg a nullás régiók felfedése) új számokat hozhatnak
+            // a többi komponens mellé, ezért az első előrelépés után újrakezdjük a szabályokat.
+            if (component.size() <= MAX_COMPONENT_VARS && solveComponent(component)) {
+                progress = true;
+                break;
+            }
+        }
+        for (int f = 0; f < frontier.size(); f++) {
+            onFrontier[frontier.get(f)] = false;
+        }
+        return progress;
+    }
+
+    private int find(int cell) {
+        while (parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]]; // Útfelezés
+            cell = parent[cell];
+        }
+        return cell;
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra != rb) {
+            parent[rb] = ra;
+        }
+    }
+
+    // Egy komponens megoldásainak felsorolása visszalépéses kereséssel.
+    private boolean solveComponent(IntDeque component) {
+        int varCount = component.size();
+        int[] vars = new int[varCount];
+        for (int i = 0; i < varCount; i++) {
+            vars[i] = component.get(i);
+            varIndex[vars[i]] = i;
+        }
+        // Korlátok: a komponens változóival szomszédos felfedett számok
+        IntDeque constraintCells = new IntDeque(32);
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (state[cell] != REVEALED || counts[cell] == 0) {
+                continue;
+            }
+            for (int k = 0; k < 8; k++) {
+                int n = neighbors[cell * 8 + k];
+                if (n >= 0 && state[n] == UNKNOWN && varIndex[n] >= 0) {
+                    constraintCells.addLast(cell);
+                    break;
+                }
+            }
+        }
+        int constraintCount = constraintCells.size();
+        int[] need = new int[constraintCount];        // Még elhelyezendő aknák
+        int[] open = new int[constraintCount];        // Még értékeletlen változók
+        int[][] varConstraints = new int[varCount][8];
+        int[] varConstraintCount = new int[varCount];
+        for (int j = 0; j < constraintCount; j++) {
+            int cell = constraintCells.get(j);
+            need[j] = missingMines(cell);
+            for (int k = 0; k < 8; k++) {
+                int n = neighbors[cell * 8 + k];
+                if (n >= 0 && state[n] == UNKNOWN && varIndex[n] >= 0) {
+                    int v = varIndex[n];
+                    open[j]++;
+                    varConstraints[v][varConstraintCount[v]++] = j;
+                }
+            }
+        }
+        for (int v : vars) {
+            varIndex[v] = -1;
+        }
+
+        long[] mineSolutions = new long[varCount];
+        long[] totals = new long[1];
+        boolean[] assignment = new boolean[varCount];
+        enumerationNodes = 0;
+        boolean complete = search(0, varCount, assignment, need, open, varConstraints, varConstraintCount,
+                mineSolutions, totals);
+        if (!complete || totals[0] == 0) {
+            return false; // Túl nagy a keresési tér (vagy nincs megoldás): nem következtetünk
+        }
+        boolean progress = false;
+        for (int v = 0; v < varCount; v++) {
+            if (mineSolutions[v] == 0) {
+                reveal(vars[v]);
+                progress = true;
+            } else if (mineSolutions[v] == totals[0]) {
+                flag(vars[v]);
+                progress = true;
+            }
+        }
+        return progress;
+    }
+
+    private boolean search(int v, int varCount, boolean[] assignment, int[] need, int[] open,
+                           int[][] varConstraints, int[] varConstraintCount, long[] mineSolutions, long[] totals) {
+        if (++enumerationNodes > MAX_ENUMERATION_NODES) {
+            return false;
+        }
+        if (v == varCount) {
+            totals[0]++;
+            for (int i = 0; i < varCount; i++) {
+                if (assignment[i]) {
+                    mineSolutions[i]++;
+                }
+            }
+            return true;
+        }
+        for (int value = 0; value <= 1; value++) {
+            boolean mine = value == 1;
+            boolean consistent = true;
+            for (int i = 0; i < varConstraintCount[v]; i++) {
+                int j = varConstraints[v][i];
+                open[j]--;
+                if (mine) {
+                    need[j]--;
+                }
+                if (need[j] < 0 || need[j] > open[j]) {
+                    consistent = false;
+                }
+            }
+            if (consistent) {
+                assignment[v] = mine;
+                if (!search(v + 1, varCount, assignment, need, open, varConstraints, varConstraintCount,
+                        mineSolutions, totals)) {
+                    undo(v, mine, need, open, varConstraints, varConstraintCount);
+                    return false;
+                }
+            }
+            undo(v, mine, need, open, varConstraints, varConstraintCount);
+        }
+        return true;
+    }
+
+    private static void undo(int v, boolean mine, int[] need, int[] open, int[][] varConstraints,
+                             int[] varConstraintCount) {
+        for (int i = 0; i < varConstraintCount[v]; i++) {
+            int j = varConstraints[v][i];
+            open[j]++;
+            if (mine) {
+                need[j]++;
+            }
+        }
+    }
+
+    private boolean applyMineCountRule() {
+        int unknownCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (state[cell] == UNKNOWN) {
+                unknownCount++;
+            }
+        }
+        if (unknownCount == 0 || (minesRemaining != 0 && minesRemaining != unknownCount)) {
+            return false;
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (state[cell] == UNKNOWN) {
+                if (minesRemaining == 0) {
+                    reveal(cell);
+                } else {
+                    flag(cell);
+                }
+            }
+        }
+        return true;
+    }
+
+    // Felfedi a cellát (nullánál a teljes régiót); akna felfedése hibás következtetést jelent.
+    private void reveal(int start) {
+        if (state[start] != UNKNOWN) {
+            return;
+        }
+        if (mines.getUnchecked(start)) {
+            throw new IllegalStateException("A megoldó aknát fedett fel: hibás következtetés.");
+        }
+        state[start] = REVEALED;
+        safeRemaining--;
+        stack.clear();
+        stack.addLast(start);
+        while (!stack.isEmpty()) {
+            int cell = stack.pollLast();
+            if (counts[cell] != 0) {
+                continue;
+            }
+            for (int k = 0; k < 8; k++) {
+                int n = neighbors[cell * 8 + k];
+                if (n >= 0 && state[n] == UNKNOWN) {
+                    state[n] = REVEALED;
+                    safeRemaining--;
+                    stack.addLast(n);
+                }
+            }
+        }
+    }
+
+    private void flag(int cell) {
+        if (state[cell] != UNKNOWN) {
+            return;
+        }
+        if (!mines.getUnchecked(cell)) {
+            throw new IllegalStateException("A megoldó biztonságos cellát jelölt aknának: hibás következtetés.");
+        }
+        state[cell] = FLAGGED;
+        minesRemaining--;
+    }
+}
@@ -0,0 +1,283 @@
+package com.ai.project;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A Pac-Man level compiled from an ASCII layout into flat arrays.
+ * Each tile is stored as its TileType ordinal in a byte[]. For every tile there is also a
+ * precomputed 4-bit mask of the directions Pac-Man may move in, and a separate mask for ghosts,
+ * which may pass the ghost lair door. A neighbor table holds the index of the adjacent tile in
+ * each direction. Rows and columns wrap around, so open tiles on the edge form tunnels.
+ * Movement, cornering and ghost decisions are therefore single array lookups.
+ *
+ * Layout legend:
+ * '#' wall, '.' dot, 'o' power pellet, ' ' path, '-' ghost lair door, '_' ghost lair,
+ * 'P' Pac-Man spawn (path), 'G' ghost spawn (path).
+ * The first row sets the width; shorter rows are padded with walls, longer rows are cut.
+ *
+ * A compiled map is immutable, so one instance per layout is shared through cached().
+ * Consumed dots belong to the game state, not to the map.
+ */
+public final class CompiledTileMap {
+
+    /** Direction indices; the mask bit of a direction is 1 << index. Same order as PacMan.Direction. */
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+    private static final TileType[] TILE_TYPES = TileType.values();
+    private static final Map<List<String>, CompiledTileMap> CACHE = new ConcurrentHashMap<>();
+
+    private final int width;
+    private final int height;
+    private final byte[] tiles;       // TileType ordinals, row-major
+    private final byte[] pacmanOpen;  // Open directions for Pac-Man
+    private final byte[] ghostOpen;   // Open directions for ghosts
+    private final int[] neighbors;    // neighbors[cell * 4 + direction], with wrap-around
+    private final int pacmanSpawn;
+    private final int[] ghostSpawns;
+
+    private CompiledTileMap(String[] layout) {
+        if (layout == null || layout.length == 0 || layout[0].isEmpty()) {
+            throw new IllegalArgumentException("Layout must have at least one non-empty row.");
+        }
+        this.height = layout.length;
+        this.width = layout[0].length();
+        int cells = Math.multiplyExact(width, height);
+        this.tiles = new byte[cells];
+        this.pacmanOpen = new byte[cells];
+        this.ghostOpen = new byte[cells];
+        this.neighbors = new int[cells * 4];
+
+        int pacman = -1;
+        int[] ghosts = new int[cells];
+        int ghostCount = 0;
+        for (int y = 0; y < height; y++) {
+            String row = layout[y];
+            for (int x = 0; x < width; x++) {
+                char symbol = x < row.length() ? row.charAt(x) : '#';
+                int cell = y * width + x;
+                tiles[cell] = (byte) parse(symbol, x, y).ordinal();
+                if (symbol == 'P') {
+                    pacman = cell;
+                } else if (symbol == 'G') {
+                    ghosts[ghostCount++] = cell;
+                }
+            }
+        }
+        this.pacmanSpawn = pacman;
+        this.ghostSpawns = Arrays.copyOf(ghosts, ghostCount);
+
+        for (int cell = 0; cell < cells; cell++) {
+            int x = cell % width;
+            int y = cell / width;
+            int pacmanMask = 0;
+            int ghostMask = 0;
+            for (int dir = 0; dir < 4; dir++) {
+                int nx = Math.floorMod(x + DX[dir], width);
+                int ny = Math.floorMod(y + DY[dir], height);
+                int next = ny * width + nx;
+                neighbors[cell * 4 + dir] = next;
+                if (isPacmanWalkable(tiles[cell]) && isPacmanWalkable(tiles[next])) {
+                    pacmanMask |= 1 << dir;
+                }
+                if (tiles[cell] != TileType.WALL.ordinal() && tiles[next] != TileType.WALL.ordinal()) {
+                    ghostMask |= 1 << dir;
+                }
+            }
+            pacmanOpen[cell] = (byte) pacmanMask;
+            ghostOpen[cell] = (byte) ghostMask;
+        }
+    }
+
+    private static TileType parse(char symbol, int x, int y) {
+        switch (symbol) {
+            case '#':
+                return TileType.WALL;
+            case '.':
+                return TileType.DOT;
+            case 'o':
+                return TileType.POWER_PELLET;
+            case ' ':
+            case 'P':
+            case 'G':
+                return TileType.PATH;
+            case '-':
+                return TileType.GHOST_LAIR_DOOR;
+            case '_':
+                return TileType.EMPTY_GHOST_LAIR;
+            default:
+                throw new IllegalArgumentException("Unknown tile '" + symbol + "' at (" + x + ", " + y + ").");
+        }
+    }
+
+    private static boolean isPacmanWalkable(byte tile) {
+        return tile == TileType.PATH.ordinal() || tile == TileType.DOT.ordinal()
+                || tile == TileType.POWER_PELLET.ordinal();
+    }
+
+    /**
+     * Compiles a layout without caching.
+     *
+     * @param layout The rows of the level.
+     * @return The compiled map.
+     * @throws IllegalArgumentException if the layout is empty or has an unknown symbol.
+     */
+    public static CompiledTileMap compile(String... layout) {
+        return new CompiledTileMap(layout);
+    }
+
+    /**
+     * Returns the compiled map of a layout, compiling it only the first time it is seen,
+     * so each level is compiled once no matter how often it is (re)started.
+     *
+     * @param layout The rows of the level.
+     * @return The shared compiled map.
+     */
+    public static CompiledTileMap cached(String... layout) {
+        List<String> key = List.of(layout.clone());
+        return CACHE.computeIfAbsent(key, k -> new CompiledTileMap(layout));
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /** The tile index of (x, y); no bounds check. */
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    public int x(int cell) {
+        return cell % width;
+    }
+
+    public int y(int cell) {
+        return cell / width;
+    }
+
+    /** The TileType ordinal of the tile. */
+    public int tileOrdinal(int cell) {
+        return tiles[cell];
+    }
+
+    public boolean isWall(int cell) {
+        return tiles[cell] == TileType.WALL.ordinal();
+    }
+
+    /** The directions Pac-Man may move in from the tile, as a 4-bit mask. */
+    public int pacmanOpenMask(int cell) {
+        return pacmanOpen[cell];
+    }
+
+    /** The directions a ghost may move in from the tile, as a 4-bit mask. */
+    public int ghostOpenMask(int cell) {
+        return ghostOpen[cell];
+    }
+
+    public boolean canPacmanMove(int cell, int direction) {
+        return (pacmanOpen[cell] & (1 << direction)) != 0;
+    }
+
+    /** The adjacent tile in a direction, wrapping around the edges. */
+    public int neighbor(int cell, int direction) {
+        return neighbors[cell * 4 + direction];
+    }
+
+    /**
+     * The directions a ghost may choose from when it arrives on the tile moving in the given direction.
+     * Ghosts do not reverse, except in a dead end.
+     */
+    public int ghostChoices(int cell, int direction) {
+        int open = ghostOpen[cell];
+        int forward = open & ~(1 << (direction ^ 1)); // UP/DOWN and LEFT/RIGHT are reverse pairs
+        return forward != 0 ? forward : open;
+    }
+
+    /** The tile where Pac-Man starts, or -1 if the layout has no 'P'. */
+    public int getPacmanSpawn() {
+        return pacmanSpawn;
+    }
+
+    public int[] getGhostSpawns() {
+        return ghostSpawns.clone();
+    }
+
+    /**
+     * Demonstrates compilation, the per-layout cache, and the cost of mask-driven movement.
+     */
+    public static void main(String[] args) {
+        String[] level1 = {
+            "############################",
+            "#............##............#",
+            "#.####.#####.##.#####.####.#",
+            "#o####.#####.##.#####.####o#",
+            "#..........................#",
+            "#.####.##.########.##.####.#",
+            "#......##....##....##......#",
+            "######.##### ## #####.######",
+            "     #.##    G     ##.#     ",
+            "######.## ###--### ##.######",
+            "      .   #______#   .      ",
+            "######.## ######## ##.######",
+            "#............##............#",
+            "#.####.#####.##.#####.####.#",
+            "#o..##.......P........##..o#",
+            "###.##.##.########.##.##.###",
+            "#......##....##....##......#",
+            "#.##########.##.##########.#",
+            "#..........................#",
+            "############################"
+        };
+
+        long start = System.nanoTime();
+        CompiledTileMap map = cached(level1);
+        long compileNanos = System.nanoTime() - start;
+        System.out.printf("Compiled %dx%d in %.2f ms; cached instance reused: %b%n",
+                map.getWidth(), map.getHeight(), compileNanos / 1e6, cached(level1.clone()) == map);
+
+        // Pac-Man and a ghost wander randomly; every step is a mask test and a neighbor lookup
+        Random random = new Random(3);
+        int pacman = map.getPacmanSpawn();
+        int pacmanDir = LEFT;
+        int ghost = map.getGhostSpawns()[0];
+        int ghostDir = UP;
+        int steps = 20_000_000;
+        int tunnelCrossings = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < steps; i++) {
+            int wanted = random.nextInt(4);
+            if (map.canPacmanMove(pacman, wanted)) {
+                pacmanDir = wanted; // Cornering: take the queued turn as soon as it is open
+            }
+            if (map.canPacmanMove(pacman, pacmanDir)) {
+                int next = map.neighbor(pacman, pacmanDir);
+                if (Math.abs(map.x(next) - map.x(pacman)) > 1) {
+                    tunnelCrossings++;
+                }
+                pacman = next;
+            }
+            int choices = map.ghostChoices(ghost, ghostDir);
+            do {
+                ghostDir = random.nextInt(4);
+            } while ((choices & (1 << ghostDir)) == 0);
+            ghost = map.neighbor(ghost, ghostDir);
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%d steps in %.1f ms (%.1f ns/step); Pac-Man at (%d, %d) on %s, tunnel crossings: %d%n",
+                steps, nanos / 1e6, (double) nanos / steps, map.x(pacman), map.y(pacman),
+                TILE_TYPES[map.tileOrdinal(pacman)], tunnelCrossings);
+        System.out.println("Ghost never on a wall: " + !map.isWall(ghost));
+    }
+}